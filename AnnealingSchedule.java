@@ -0,0 +1,102 @@
+import java.util.Locale;
+
+/**
+ *  Heuristic Algorithms
+ *  AnnealingSchedule.java
+ *  How the temperature of simulated annealing falls over the annealing part of a solve.
+ *	CLASSIC is the original behaviour: the "temperature" is only the number of ships moved at once, 
+ *	and a move is kept only if the board is no worse.
+ *	The other schedules have a real temperature T falling from t0 to tEnd, and a move that makes the score 
+ *	worse by delta is still kept with probability exp(-delta / T) (the Metropolis rule):
+ *	 - GEOMETRIC multiplies T by the same factor every step
+ *	 - LINEAR takes the same amount off T every step
+ *	 - ADAPTIVE cools geometrically, but when the best score has not improved for a while it reheats to 
+ *	   half of the temperature it last started from and cools again over the steps that are left
+ *	 - FIXED stays at t0 and anneals for the whole budget, one ship at a time; ReplicaExchange runs its replicas
+ *	   at fixed temperatures and swaps them between the replicas as it goes
+ *	An AnnealingSchedule only describes the schedule, so one can be shared by many Solvers.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *  
+ **/
+
+
+ public final class AnnealingSchedule {
+	
+	//the kinds of schedule
+	public enum Kind { CLASSIC, GEOMETRIC, LINEAR, ADAPTIVE, FIXED }
+	
+	//the original schedule, and the default
+	public static final AnnealingSchedule CLASSIC = new AnnealingSchedule(Kind.CLASSIC, 0, 0);
+	
+	//the temperatures used when none are given
+	public static final double DEFAULT_T0 = 2.0;
+	public static final double DEFAULT_T_END = 0.05;
+	
+	private final Kind kind;
+	//the starting and finishing temperatures
+	private final double t0;
+	private final double tEnd;
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	public AnnealingSchedule(Kind kind, double t0, double tEnd) {
+		if(kind != Kind.CLASSIC && !(tEnd > 0 && t0 >= tEnd)) {
+			throw new IllegalArgumentException("Temperatures must satisfy t0 >= t-end > 0");
+		}
+		this.kind = kind;
+		this.t0 = t0;
+		this.tEnd = tEnd;
+	}
+	
+	//a schedule that stays at temperature t
+	public static AnnealingSchedule fixed(double t) {
+		return new AnnealingSchedule(Kind.FIXED, t, t);
+	}
+	
+	//the schedule with the given name (classic, geometric, linear, adaptive or fixed, which stays at t0)
+	public static AnnealingSchedule parse(String name, double t0, double tEnd) {
+		try {
+			Kind kind = Kind.valueOf(name.toUpperCase(Locale.ROOT));
+			return new AnnealingSchedule(kind, t0, kind == Kind.FIXED ? t0 : tEnd);
+		}
+		catch (IllegalArgumentException ex) {
+			if(ex.getMessage().startsWith("Temperatures")) {
+				throw ex;
+			}
+			throw new IllegalArgumentException("Unknown schedule " + name);
+		}
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	public Kind getKind() {
+		return kind;
+	}
+	
+	public double getStartTemperature() {
+		return t0;
+	}
+	
+	public double getEndTemperature() {
+		return tEnd;
+	}
+	
+	//does this schedule keep moves that make the score worse
+	public boolean isMetropolis() {
+		return kind != Kind.CLASSIC;
+	}
+	
+	//the temperature after step of steps, cooling from the temperature from down to tEnd
+	public double temperature(double from, int step, int steps) {
+		
+		double progress = steps > 0 ? Math.min((double) step / steps, 1.0) : 1.0;
+		if(kind == Kind.FIXED) {
+			return from;
+		}
+		if(kind == Kind.LINEAR) {
+			return from + (tEnd - from) * progress;
+		}
+		return from * Math.pow(tEnd / from, progress);
+	}
+ }
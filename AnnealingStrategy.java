@@ -0,0 +1,33 @@
+/**
+ *  Heuristic Algorithms
+ *  AnnealingStrategy.java
+ *  The original search: simulated annealing, following the Solver's annealing schedule, for three quarters of the
+ *	solutions (all of them when there are 20 or fewer), then hill climbing for the rest.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ public class AnnealingStrategy implements SearchStrategy {
+
+	//the Solver sets the annealing up in its own prepare, as the schedule and ship counter live there
+	@Override
+	public void prepare(Solver solver, int maxSolutions) {
+	}
+
+	@Override
+	public void step(Solver solver) {
+		if(solver.annealing()) {
+			solver.annealingStep();
+		}
+		else {
+			solver.climbingStep();
+		}
+	}
+
+	@Override
+	public String name() {
+		return "annealing";
+	}
+ }
@@ -0,0 +1,300 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ *  Heuristic Algorithms
+ *  BatchRunner.java
+ *  Solves many puzzles in one JVM. Accepts a directory (every .txt file in it is a puzzle) or a list file 
+ *	(one puzzle path per line, relative paths are taken from the list file's directory, blank lines and 
+ *	lines starting with # are skipped), and the maximum number of potential solutions to evaluate per puzzle.
+ *	The puzzles are solved on a fixed pool of worker threads and one JSON line is written per puzzle with 
+ *	the file, score, evaluations used, wall time and the board.
+ *	Results are written in input order by default, or as each puzzle finishes with --order completion.
+ *	With --seed S every puzzle is solved from the same seed, so a batch can be repeated exactly.
+ *	--time-limit and --max-iterations bound each puzzle's solve, and each line says why the solve stopped.
+ *	With --stats each line also carries the solver's search statistics.
+ *	With --cache file the puzzles share a SolutionCache, loaded from the file first and saved back to it at the end,
+ *	so a puzzle already solved (in any orientation) is answered without a solve.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *  
+ **/
+
+
+ public class BatchRunner {
+	
+	//the maximum number of potential solutions to evaluate for each puzzle
+	private final int maxSolutions;
+	//how many puzzles are solved at once
+	private final int workers;
+	//write each result as soon as it is finished rather than in input order
+	private final boolean completionOrder;
+	//the seed every puzzle is solved from, or null for unseeded solves
+	private Long seed;
+	//the wall-clock time and steps each puzzle may take, 0 for no limit
+	private long timeLimitNanos = 0;
+	private long maxIterations = 0;
+	//add the search statistics to each line
+	private boolean withStats = false;
+	//the name of the strategy every puzzle is searched with
+	private String strategy = "annealing";
+	//the cache the puzzles share, or null
+	private SolutionCache cache;
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	public BatchRunner(int maxSolutions, int workers, boolean completionOrder) {
+		if(workers < 1) {
+			throw new IllegalArgumentException("Number of workers must be at least 1");
+		}
+		this.maxSolutions = maxSolutions;
+		this.workers = workers;
+		this.completionOrder = completionOrder;
+	}
+	
+	//solve every puzzle from the same seed, this must be called before run
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+	
+	//search every puzzle with the named strategy (see SearchStrategy.parse), this must be called before run
+	public void setStrategy(String strategy) {
+		//check the name now rather than in every worker
+		SearchStrategy.parse(strategy);
+		this.strategy = strategy;
+	}
+	
+	//answer puzzles from a cache and add each new result to it, this must be called before run
+	public void setCache(SolutionCache cache) {
+		this.cache = cache;
+	}
+	
+	//add the search statistics to each line, this must be called before run
+	public void setStats(boolean withStats) {
+		this.withStats = withStats;
+	}
+	
+	//limit each puzzle's solve, 0 for no limit, this must be called before run
+	public void setLimits(long timeLimitNanos, long maxIterations) {
+		this.timeLimitNanos = timeLimitNanos;
+		this.maxIterations = maxIterations;
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//solves every puzzle on the worker pool and streams one JSON line per puzzle to out
+	public void run(List<Path> files, PrintStream out) throws InterruptedException {
+		
+		ExecutorService pool = Executors.newFixedThreadPool(workers);
+		try {
+			if(completionOrder) {
+				//hand out results in whatever order the workers finish them
+				CompletionService<String> done = new ExecutorCompletionService<String>(pool);
+				for(Path file : files) {
+					done.submit(() -> solveOne(file));
+				}
+				for(int i = 0; i < files.size(); i++) {
+					out.println(result(done.take()));
+					out.flush();
+				}
+			}
+			else {
+				//wait on each result in turn so the output matches the input
+				List<Future<String>> results = new ArrayList<Future<String>>();
+				for(Path file : files) {
+					results.add(pool.submit(() -> solveOne(file)));
+				}
+				for(Future<String> result : results) {
+					out.println(result(result));
+					out.flush();
+				}
+			}
+		}
+		finally {
+			pool.shutdownNow();
+		}
+	}
+	
+	//the line a finished worker produced
+	private static String result(Future<String> future) throws InterruptedException {
+		try {
+			return future.get();
+		}
+		catch (ExecutionException ex) {
+			//solveOne reports its own failures, so this can only be an unexpected error
+			throw new IllegalStateException("Worker failed", ex.getCause());
+		}
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//solves one puzzle and describes the result as a JSON line, a puzzle that cannot be read gets an error line
+	private String solveOne(Path file) {
+		
+		long start = System.nanoTime();
+		try {
+			Puzzle puzzle = Puzzle.read(file.toString());
+			//a puzzle seen before is answered from the cache, if it was solved or searched with at least this budget
+			Board cached = cache == null ? null : cache.get(puzzle, maxSolutions);
+			if(cached != null) {
+				double timeMs = (System.nanoTime() - start) / 1e6;
+				return String.format(Locale.ROOT, "{\"file\":%s,\"score\":%d,\"cached\":true,\"timeMs\":%.3f,\"board\":%s}",
+					Json.quote(file.toString()), puzzle.score(cached), timeMs, Json.board(cached, puzzle.size()));
+			}
+			Solver solver = seed == null ? new Solver(puzzle) : new Solver(puzzle, seed);
+			solver.setStrategy(SearchStrategy.parse(strategy));
+			solver.setTimeLimit(timeLimitNanos);
+			solver.setMaxIterations(maxIterations);
+			solver.solve(maxSolutions);
+			Board bestBoard = solver.getBestBoard();
+			if(cache != null) {
+				cache.put(puzzle, bestBoard, solver.calculateFitness(bestBoard), maxSolutions);
+			}
+			double timeMs = (System.nanoTime() - start) / 1e6;
+			return String.format(Locale.ROOT, "{\"file\":%s,\"score\":%d,\"evaluations\":%d,\"iterations\":%d,"
+				+ "\"stop\":%s,\"timeMs\":%.3f,%s\"board\":%s}",
+				Json.quote(file.toString()), solver.calculateFitness(bestBoard), solver.getEvaluations(), 
+				solver.getIterations(), Json.quote(solver.getStopReason().name().toLowerCase(Locale.ROOT)), timeMs,
+				withStats ? "\"stats\":" + solver.getStats().toJson() + "," : "", Json.board(bestBoard, puzzle.size()));
+		}
+		catch (IOException | RuntimeException ex) {
+			double timeMs = (System.nanoTime() - start) / 1e6;
+			return String.format(Locale.ROOT, "{\"file\":%s,\"error\":%s,\"timeMs\":%.3f}",
+				Json.quote(file.toString()), Json.quote(String.valueOf(ex.getMessage())), timeMs);
+		}
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//the puzzles named by a directory or a list file
+	public static List<Path> listPuzzles(Path input) throws IOException {
+		
+		//every .txt file in a directory, sorted by name so the input order is stable
+		if(Files.isDirectory(input)) {
+			try (Stream<Path> files = Files.list(input)) {
+				return files.filter(f -> f.getFileName().toString().endsWith(".txt") && Files.isRegularFile(f))
+					.sorted()
+					.collect(Collectors.toList());
+			}
+		}
+		//otherwise one path per line of the list file
+		Path base = input.toAbsolutePath().getParent();
+		List<Path> files = new ArrayList<Path>();
+		for(String line : Files.readAllLines(input)) {
+			line = line.trim();
+			if(line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			Path file = Paths.get(line);
+			files.add(file.isAbsolute() || base == null ? file : base.resolve(file).normalize());
+		}
+		return files;
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	public static void main(String[] args) {
+		
+		//check we have been passed the correct number of args
+		if(args.length < 2) {
+			System.err.println("Usage: java BatchRunner <directory|list file> <max potential solutions> "
+				+ "[--workers K] [--order input|completion] [--seed S] [--time-limit seconds] [--max-iterations N] [--stats] [--strategy annealing|hill|tabu|local] [--cache file]");
+			return;
+		}
+		try {
+			Path input = Paths.get(args[0]);
+			int maxSolutions = Integer.parseInt(args[1]);
+			int workers = Runtime.getRuntime().availableProcessors();
+			boolean completionOrder = false;
+			Long seed = null;
+			double timeLimit = 0;
+			long maxIterations = 0;
+			boolean withStats = false;
+			String strategy = "annealing";
+			Path cacheFile = null;
+			//read in the options
+			for(int i = 2; i < args.length; i++) {
+				switch(args[i]) {
+					case "--workers":
+						workers = Integer.parseInt(BattleShip.optionValue(args, i++));
+						break;
+					case "--order":
+						String order = BattleShip.optionValue(args, i++);
+						if(!order.equals("input") && !order.equals("completion")) {
+							throw new IllegalArgumentException("Order must be input or completion");
+						}
+						completionOrder = order.equals("completion");
+						break;
+					case "--seed":
+						seed = Long.parseLong(BattleShip.optionValue(args, i++));
+						break;
+					case "--time-limit":
+						timeLimit = Double.parseDouble(BattleShip.optionValue(args, i++));
+						if(timeLimit <= 0) {
+							throw new IllegalArgumentException("Time limit must be more than 0 seconds");
+						}
+						break;
+					case "--max-iterations":
+						maxIterations = Long.parseLong(BattleShip.optionValue(args, i++));
+						if(maxIterations < 1) {
+							throw new IllegalArgumentException("Maximum iterations must be at least 1");
+						}
+						break;
+					case "--stats":
+						withStats = true;
+						break;
+					case "--strategy":
+						strategy = BattleShip.optionValue(args, i++);
+						break;
+					case "--cache":
+						cacheFile = Paths.get(BattleShip.optionValue(args, i++));
+						break;
+					default:
+						throw new IllegalArgumentException("Unknown option " + args[i]);
+				}
+			}
+			BatchRunner runner = new BatchRunner(maxSolutions, workers, completionOrder);
+			if(seed != null) {
+				runner.setSeed(seed);
+			}
+			runner.setLimits((long) (timeLimit * 1e9), maxIterations);
+			runner.setStats(withStats);
+			runner.setStrategy(strategy);
+			SolutionCache cache = null;
+			if(cacheFile != null) {
+				cache = new SolutionCache(SolutionCache.DEFAULT_ENTRIES, SolutionCache.DEFAULT_BYTES);
+				if(Files.exists(cacheFile)) {
+					cache.load(cacheFile);
+				}
+				runner.setCache(cache);
+			}
+			runner.run(listPuzzles(input), System.out);
+			//keep what was learned for the next batch
+			if(cache != null) {
+				cache.save(cacheFile);
+			}
+		}
+		catch (IOException | IllegalArgumentException ex) {
+			System.err.println(ex.getMessage());
+			System.exit(1);
+		}
+		catch (Exception ex) {
+			System.err.println("Exception " + ex);
+			ex.printStackTrace();
+		}
+	}
+ }
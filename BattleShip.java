@@ -1,8 +1,11 @@
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.util.BitSet;
-import java.util.Random;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  *  Heuristic Algorithms
@@ -13,6 +16,18 @@ import java.util.ArrayList;
  *	column,	and the number of ship-occupied cells in each row. 
  *	Also accepts an integer as a second commandline argument specifying the maximum number of potential solutions 
  *	to the puzzle that your program is allowed to evaluate before it must stop and produce its best result.
+ *	Optionally accepts --threads K to run K annealing chains at once and report the best of them.
+ *	--schedule geometric|linear|adaptive replaces the original cooling with a real temperature falling from --t0 
+ *	to --t-end, under which worse boards are sometimes kept (see AnnealingSchedule).
+ *	--replicas M runs parallel tempering instead: M replicas at fixed temperatures from --t-end up to --t0, one
+ *	thread each, swapping boards every --exchange-every steps (see ReplicaExchange).
+ *	--seed S makes a run repeatable: the same seed, puzzle and options always give the same result.
+ *	With --exact the puzzle is instead searched exhaustively until a solution is found, it is shown to have none,
+ *	or --time-limit seconds (60 by default) have passed. The number of solutions is then ignored.
+ *	--checkpoint file saves the whole search to file every --checkpoint-every seconds (60 by default), or every
+ *	--checkpoint-every-steps steps, when it finishes, and when the JVM is told to shut down; --resume carries a run
+ *	on from that file.
+ *	The search itself lives in Solver, this class only reads the arguments and prints the result.
  *
  *  Authors: Sacha Raman and Elizabeth Macken
  *  
@@ -21,54 +36,13 @@ import java.util.ArrayList;
 
  public class BattleShip {
 	
-	//what ship is currently being placed
-	private static int currShip = 0;
-	//the size of the ship to be placed
-	private static int shipSize;
-	//how many ships have been placed
-	private static int shipsPlacedCount = 0;
-	//what is the current column or row position
-	private static int colPos = 0;
-	private static int rowPos = 0;
-	//is the ship to be placed vertically or horizontally
-	private static boolean vertical;
-	//the start and end position of the ship to be placed
-	private static int startPos = 0;
-	private static int endPos = 0;
-	//has the current ship been placed
-	private static boolean shipPlaced = false;
-	//does the perimiter of the ship to be placed, exceed any boundaries
-	private static boolean above, below, rightBounds = false, leftBounds = false;
-	//what is the start and end corners of the perimeter and the width of ship + perimeter area
-	private static int loopStart, loopEnd, width;
-	//flag to see if ship placement is invalid
-	private static boolean posInvalid = false;
-	private static boolean moveValid;
-	//three int arrays to store the ships, xHits and yHits
-	private static int[] ships;
-	private static int[] xHits;
-	private static int[] yHits;
-	//the length of the board
-	private static int N;
-	//the best solution board
-	private static BitSet bestBoard;
-	//the current board
-	//private static BitSet currBoard;
-	//list of ships on the board
-	private static ArrayList<Ship> shipsOnBoard = new ArrayList<Ship>();
-	//flag for whether initial solution or not
-	private static boolean initial = true;
-	//flag if the solution is identical to our original solution
-	private static boolean identicalSolution = false; 
-	//ship counter for simulated annealing 
-	private static int shipCounter, simACounter;
-	//ignore the perimeters flag
-	private static boolean ignorePerimeters = false;
-
 	// -------------------------------------------------------------------------------------------------------------------
 	
 	// Prints the board pretty to the console												
-	public static void printBoard() {
+	public static void printBoard(Puzzle puzzle, Board board) {
+		int N = puzzle.size();
+		int[] xHits = puzzle.getXHits();
+		int[] yHits = puzzle.getYHits();
 		System.out.println("Best Solution: ");
 		System.out.print("   ");
 		//print out the Xhits 
@@ -83,7 +57,7 @@ import java.util.ArrayList;
 					System.out.print(yHits[i / N]);
 					System.out.print(" ");
 				}
-				if(bestBoard.get(i) == true) {
+				if(board.get(i) == true) {
 					System.out.print("X ");
 				}
 				else {
@@ -95,732 +69,340 @@ import java.util.ArrayList;
 	
 	// -------------------------------------------------------------------------------------------------------------------
 	
-	// Reads in the data from the textfile to create the board, creates an initial solution 
-	// and then does simulated annealing
-	public static void main(String[] args) {
-		
-		//check we have been passed the correct number of args
-		if(args.length != 2) {
-			System.err.println("Usage: java BattleShip <filename> <max potential solutions>");
-			return;
-		}
-		try {
-			//declare variables
-			String filename = args[0];
-			int maxSolutions = Integer.parseInt(args[1]);
-			BufferedReader br = new BufferedReader(new FileReader(filename));
-
-			//read in the first line, the ships
-			String s = br.readLine();
-			if(s == null) {
-				System.err.println("No ships in input file");
-				System.exit(1);
-			}
-			String[] line1 = s.split(" ");
-			ships = new int[line1.length];
-			for(int i = 0; i < line1.length; i++) { 
-				ships[i] = Integer.parseInt(line1[i]);
-			}
-			//read in the second line, the xHits
-			s = br.readLine();
-			if(s == null) {
-				System.err.println("No xHits in input file");
-				System.exit(1);
-			}
-			String[] line2 = s.split(" ");
-			xHits = new int[line2.length];
-			for(int i = 0; i < line2.length; i++) { 
-				xHits[i] = Integer.parseInt(line2[i]);
-			}
-			//read in the third line, the yHits
-			s = br.readLine();
-			if(s == null) {
-				System.err.println("No yHits in input file");
-				System.exit(1);
-			}
-			String[] line3 = s.split(" ");
-			yHits = new int[line3.length];
-			for(int i = 0; i < line3.length; i++) { 
-				yHits[i] = Integer.parseInt(line3[i]);
-			}
-			//check we have a NxN grid
-			if(xHits.length != yHits.length) {
-				System.err.println("Grid is not NxN");
-				System.exit(1);
-			}
-			//close the BufferedReader
-			br.close();
-			
-			//generate the first solution
-			initialSolution();			
-			//set initial flag to false as we have made the initial solution
-			initial = false;
-			
-			/*
-			//ONLY HILLCLIMBING
-			int solutionCounter = 0;
-			//call this method in a for loop from 0 to < maxSolutions
-			while(solutionCounter < maxSolutions) {
-				System.err.println("hill climbing");
-				hillClimbing();
-				if(identicalSolution == false) {
-					solutionCounter++;
-				}
-			}
-			*/
-		
-		
-			//set the ship counter to the number of ships we have
-			shipCounter = ships.length; 
-			//if we have <= 20 solutions do Simulated Annealing the whole time
-			if (maxSolutions <= 20) {
-				simACounter = maxSolutions;
-			}
-			//otherwise do it three quarters of the time
-			else {
-				simACounter = maxSolutions * 3 / 4;
-			} 
-			//set the rate of cooling
-			int interval = simACounter / shipCounter;
-			int intervalCounter = 0;
-			//Simulated Annealing
-			int solutionCounter = 0;
-			//call this method in a for loop from 0 to < maxSolutions
-			while(solutionCounter < maxSolutions) {
-				if (simACounter > 1) {
-					simulatedAnnealing(); 
-					intervalCounter++;
-					if(intervalCounter == interval) {
-						intervalCounter = 0;
-						//lower the temperature
-						shipCounter--;
-					}
-				}
-				else {
-					hillClimbing();
-				}
-				//if the board remains unchanged (i.e. no ships have moved) do not count as a solution
-				if(identicalSolution == false) {
-					solutionCounter++;
-				}
-			}
-			
-			//print the best solution followed by the score
-			printBoard();
-			System.out.println("SCORE: " +  calculateFitness(bestBoard));
-			
-
-		}
-		catch (Exception ex) {
-			System.err.println("Exception " + ex);
-			ex.printStackTrace();
+	//the value following an option on the command line
+	static String optionValue(String[] args, int i) {
+		if(i + 1 >= args.length) {
+			throw new IllegalArgumentException("Missing value for " + args[i]);
 		}
+		return args[i + 1];
 	}
 	
-	// -------------------------------------------------------------------------------------------------------------------
+	//a listener that writes each improvement to standard output as a JSON line
+	static ProgressListener progressPrinter(int N) {
+		return (score, iteration, elapsedNanos, board) -> {
+			System.out.println(String.format(Locale.ROOT, "{\"score\":%d,\"iteration\":%d,\"timeMs\":%.3f,\"board\":%s}",
+				score, iteration, elapsedNanos / 1e6, Json.board(board, N)));
+			System.out.flush();
+		};
+	}
 	
-	// Attempt to improve the score of the board through Simulated Annealing
-	public static void simulatedAnnealing() {
+	//runs a solve that checkpoints as it goes, resuming from the checkpoint first if asked to and there is one.
+	//If the JVM is told to shut down (a node restart, say) the search stops at its next step and writes a last
+	//checkpoint before the JVM goes
+	//checkpointing every everySteps steps if that is not 0, otherwise every everySeconds
+	static void checkpointedSolve(Solver solver, int maxSolutions, Path file, double everySeconds, long everySteps, 
+			boolean resume) throws IOException {
 		
-		//get a copy of our bestBoard into currBoard
-		BitSet currBoard = bestBoard.get(0, N*N);
-		//a list for the ships we will be moving
-		ArrayList<Integer> movedShips = new ArrayList<Integer>();
-		//random number generator
-		Random rand = new Random();
-		//counter of how many ships added to the list
-		int addedToList = 0;
-		//while we haven't added the number of ships we are after to the list
-		while(addedToList < shipCounter) {
-			//generate a random number
-			int randomShip = rand.nextInt(ships.length);
-			//if its not in the list, add it
-			if (!movedShips.contains(randomShip)) {
-				movedShips.add(randomShip);
-				addedToList++;
-			}
+		if(resume && Files.exists(file)) {
+			solver.resume(file);
 		}
-		//create a copy of shipsOnBoard
-		ArrayList<Ship> currShips = shipsOnBoard;
-		//create a new list to store ships to be moved in order
-		ArrayList<Integer> orderedMovedShips = new ArrayList<Integer>();
-		//order the ship pointers in movedShips from smallest to largest
-		//this means the ships are ordered from largest to smallest - have to place largest first
-		for(int i = 0; i < movedShips.size(); i++) {
-			//if the list is empty just add the ship pointer to the list
-			if(orderedMovedShips.isEmpty()) {
-				orderedMovedShips.add(movedShips.get(i));
-			}
-			else {
-				//otherwise go through the ships in our new list
-				for(int j = 0; j < orderedMovedShips.size(); j++) {
-					//if the ship pointer we are adding is smaller, then add it before
-					if(movedShips.get(i) < orderedMovedShips.get(j)) {
-						orderedMovedShips.add(j, movedShips.get(i));
-						break;
-					}
-				}
-			}
+		else if(resume) {
+			System.err.println("No checkpoint at " + file + ", starting afresh");
 		}
-		//loop through all ships in orderedMovedShips
-		for(int j = 0; j < orderedMovedShips.size(); j++) {
-			//get each ship
-			Ship ship = currShips.get(orderedMovedShips.get(j));
-			//get the start, end, and direction of this ship
-			startPos = ship.startPos_;
-			endPos = ship.endPos_;
-			vertical = ship.vertical_;
-			//erase this ship from the current board
-			int bitCounter = 0;
-			if(vertical == true) {
-				for(int i = startPos; i <= endPos; i+=N) {
-					currBoard.clear(i);
-					bitCounter++;
-				}
-			}
-			else {
-				for(int i = startPos; i <= endPos; i++) {
-					currBoard.clear(i);
-					bitCounter++;
-				}
-			}			
+		if(everySteps > 0) {
+			solver.setCheckpointSteps(file, everySteps);
 		}
-		//now that we have removed all those ships, we can add them back on
-		for(int i = 0; i < orderedMovedShips.size(); i++) {
-			//get each ship
-			Ship ship = currShips.get(orderedMovedShips.get(i));
-			//get the direction and size of this ship
-			vertical = ship.vertical_;
-			shipSize = ship.size_;
-			int initialStart = ship.startPos_;
-			int initialEnd = ship.endPos_;
-			//find a position to place the ship
-			initialShipPlacement();			
-			//loop until ship is moved
-			shipPlaced = false;
-			while(shipPlaced != true) {				
-				//check if this position is valid
-				moveValid = isValid(currBoard);
-				if(moveValid == true) {
-					//place the ship down
-					currBoard = placeShip(currBoard);
-					shipPlaced = true;
-					ignorePerimeters = false;					
-					//update our ship positions and direction
-					ship.startPos_ = startPos;
-					ship.endPos_ = endPos;
-					ship.vertical_ = vertical;
-					//set the ship
-					currShips.set(orderedMovedShips.get(i), ship);
-				}
-				else {
-					//get the next possible place we can place the ship
-					nextPossibleShipPos(vertical);
-					if(initialStart == startPos && initialEnd == endPos) {
-						ignorePerimeters = true;
-					}
-				}
-			}
+		else {
+			solver.setCheckpoint(file, (long) (everySeconds * 1e9));
 		}
-		
-		//check if the solution is identical - doesn't count as a solution
-		identicalSolution = currBoard.equals(bestBoard);
-		//calculate the fitness of the currBoard and the bestBoard
-		int currBoardFitness = calculateFitness(currBoard);
-		int bestBoardFitness = calculateFitness(bestBoard);
-		//if the currBoard is better than or as good as bestBoard, then bestBoard = currBoard
-		if(currBoardFitness <= bestBoardFitness) {			
-			bestBoard = currBoard;					
-			//update our ship list
-			shipsOnBoard = currShips;
-		}				
-		simACounter--;
+		AtomicBoolean stop = new AtomicBoolean();
+		Thread searching = Thread.currentThread();
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			stop.set(true);
+			try {
+				searching.join(10000);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}));
+		solver.solve(maxSolutions, stop);
 	}
 	
 	// -------------------------------------------------------------------------------------------------------------------
 	
-	// Attempt to improve the score of the board through Hill CLimbing
-	public static void hillClimbing() {
+	// Reads in the puzzle from the textfile and hands it to a Solver
+	public static void main(String[] args) {
 		
-		//get a copy of our bestBoard into currBoard
-		BitSet currBoard = bestBoard.get(0, N*N);
-		//pick a random ship to move
-		Random rand = new Random();
-		int randomShip = rand.nextInt(shipsOnBoard.size());
-		Ship ship = shipsOnBoard.get(randomShip);
-		//get the start, end, size, and direction of this ship
-		startPos = ship.startPos_;
-		endPos = ship.endPos_;
-		vertical = ship.vertical_;
-		shipSize = ship.size_;
-		int initialStart = startPos;
-		int initialEnd = endPos;
-		//erase this ship from the current board
-		if(vertical == true) {
-			for(int i = startPos; i <= endPos; i+=N) {
-				currBoard.clear(i);
-			}
+		//check we have been passed the correct number of args
+		if(args.length < 2) {
+			System.err.println("Usage: java BattleShip <filename> <max potential solutions> [--threads K] "
+				+ "[--schedule classic|geometric|linear|adaptive] [--t0 T] [--t-end T] [--replicas M] [--exchange-every steps] [--seed S] [--exact] [--time-limit seconds] [--max-iterations N] [--stats file] [--progress] [--strategy annealing|hill|tabu|local|best] [--cache file] [--checkpoint file] [--checkpoint-every seconds] [--checkpoint-every-steps N] [--resume]");
+			return;
 		}
-		else {
-			for(int i = startPos; i <= endPos; i++) {
-				currBoard.clear(i);
+		try {
+			//declare variables
+			String filename = args[0];
+			int maxSolutions = Integer.parseInt(args[1]);
+			int threads = 1;
+			int replicas = 0;
+			int exchangeEvery = ReplicaExchange.DEFAULT_INTERVAL;
+			boolean exact = false;
+			Double timeLimit = null;
+			long maxIterations = 0;
+			String statsFile = null;
+			boolean progress = false;
+			String strategyName = "annealing";
+			String cacheFile = null;
+			Path checkpointFile = null;
+			Double checkpointEvery = null;
+			long checkpointSteps = 0;
+			boolean resume = false;
+			String scheduleName = "classic";
+			double t0 = AnnealingSchedule.DEFAULT_T0;
+			double tEnd = AnnealingSchedule.DEFAULT_T_END;
+			Long seed = null;
+			//read in the options
+			for(int i = 2; i < args.length; i++) {
+				switch(args[i]) {
+					case "--threads":
+						threads = Integer.parseInt(optionValue(args, i++));
+						break;
+					case "--replicas":
+						replicas = Integer.parseInt(optionValue(args, i++));
+						if(replicas < 2) {
+							throw new IllegalArgumentException("--replicas must be at least 2");
+						}
+						break;
+					case "--exchange-every":
+						exchangeEvery = Integer.parseInt(optionValue(args, i++));
+						if(exchangeEvery < 1) {
+							throw new IllegalArgumentException("--exchange-every must be at least 1");
+						}
+						break;
+					case "--schedule":
+						scheduleName = optionValue(args, i++);
+						break;
+					case "--t0":
+						t0 = Double.parseDouble(optionValue(args, i++));
+						break;
+					case "--t-end":
+						tEnd = Double.parseDouble(optionValue(args, i++));
+						break;
+					case "--seed":
+						seed = Long.parseLong(optionValue(args, i++));
+						break;
+					case "--exact":
+						exact = true;
+						break;
+					case "--time-limit":
+						timeLimit = Double.parseDouble(optionValue(args, i++));
+						if(timeLimit <= 0) {
+							throw new IllegalArgumentException("Time limit must be more than 0 seconds");
+						}
+						break;
+					case "--max-iterations":
+						maxIterations = Long.parseLong(optionValue(args, i++));
+						if(maxIterations < 1) {
+							throw new IllegalArgumentException("Maximum iterations must be at least 1");
+						}
+						break;
+					case "--stats":
+						statsFile = optionValue(args, i++);
+						break;
+					case "--progress":
+						progress = true;
+						break;
+					case "--cache":
+						cacheFile = optionValue(args, i++);
+						break;
+					case "--checkpoint":
+						checkpointFile = Paths.get(optionValue(args, i++));
+						break;
+					case "--checkpoint-every":
+						checkpointEvery = Double.parseDouble(optionValue(args, i++));
+						if(checkpointEvery <= 0) {
+							throw new IllegalArgumentException("Checkpoint interval must be more than 0 seconds");
+						}
+						break;
+					case "--checkpoint-every-steps":
+						checkpointSteps = Long.parseLong(optionValue(args, i++));
+						if(checkpointSteps <= 0) {
+							throw new IllegalArgumentException("Checkpoint interval must be more than 0 steps");
+						}
+						break;
+					case "--resume":
+						resume = true;
+						break;
+					case "--strategy":
+						strategyName = optionValue(args, i++);
+						//check the name now rather than after the puzzle is read
+						if(!strategyName.equals("best")) {
+							SearchStrategy.parse(strategyName);
+						}
+						break;
+					default:
+						throw new IllegalArgumentException("Unknown option " + args[i]);
+				}
 			}
-		}
-		//loop until ship is moved
-		shipPlaced = false;
-		while(shipPlaced != true) {
-			//get the next possible place we can place the ship
-			nextPossibleShipPos(vertical);
-			if(initialStart == startPos && initialEnd == endPos) {
-				ignorePerimeters = true;
+			AnnealingSchedule schedule = AnnealingSchedule.parse(scheduleName, t0, tEnd);
+			//a checkpoint holds the state of one search
+			if(resume && checkpointFile == null) {
+				throw new IllegalArgumentException("--resume needs --checkpoint to say which file to resume from");
 			}
-			//check if this position is valid
-			moveValid = isValid(currBoard);
-			if(moveValid == true) {
-				//place the ship down
-				currBoard = placeShip(currBoard);
-				shipPlaced = true;
-				ignorePerimeters = false;
-				//check if the solution is identical - doesn't count as a solution
-				identicalSolution = currBoard.equals(bestBoard);
-				//calculate the fitness of the currBoard and the bestBoard
-				int currBoardFitness = calculateFitness(currBoard);
-				int bestBoardFitness = calculateFitness(bestBoard);
-				//if the currBoard is better than or as good as bestBoard, then bestBoard = currBoard
-				if(currBoardFitness <= bestBoardFitness) {				
-					bestBoard = currBoard;				
-					//update our ship positions and direction
-					ship.startPos_ = startPos;
-					ship.endPos_ = endPos;
-					ship.vertical_ = vertical;
-				}				
+			if(checkpointEvery != null && checkpointSteps > 0) {
+				throw new IllegalArgumentException("Give --checkpoint-every or --checkpoint-every-steps, not both");
 			}
-		}		
-	}
-	
-	// -------------------------------------------------------------------------------------------------------------------
-	
-	//find a place to initially place a ship
-	public static void initialShipPlacement() {	
-	
-		//decide where to attempt to stick the ship
-		//if we are placing vertically
-		if(vertical == true) {
-			//go through all xHit values to find one that is equal to or greater than shipSize
-			for(int i = 0; i < xHits.length; i++) {
-				if(xHits[i] >= shipSize) {
-					colPos = i;
-					break;
-				}
+			if(checkpointFile != null && (exact || threads > 1 || strategyName.equals("best"))) {
+				throw new IllegalArgumentException("--checkpoint only works with a single search, "
+					+ "not with --exact, --threads or --strategy best");
 			}
-		}
-		//if we are placing the ship horizontally
-		else {
-			//go through all the yHit values to find one that is equal to or greater than shipSize
-			for(int i = 0; i < yHits.length; i++) {
-				if(yHits[i] >= shipSize) {
-					rowPos = i;
-					break;
-				}
+			//the replicas are the threads, and each holds a temperature of its own rather than following a schedule
+			if(replicas > 0 && (exact || threads > 1 || strategyName.equals("best") || checkpointFile != null)) {
+				throw new IllegalArgumentException("--replicas cannot be used with --exact, --threads, --strategy best "
+					+ "or --checkpoint");
 			}
-		}
-		//Specify the start and end position of ship to place
-		//if ship is to be placed vertically
-		if(vertical == true) {
-			startPos = colPos;
-			endPos = startPos + ((shipSize - 1) * N);
-		}
-		//otherwise if the ship is to be horizontal
-		else {
-			startPos = rowPos * N;
-			endPos = startPos + shipSize - 1;
-		}
-	}
-	
-	// -------------------------------------------------------------------------------------------------------------------
-	
-	//Generates a initial solution
-	public static void initialSolution() {
-		
-		//order the ships in the ships array by size using bubble sort
-		int length = ships.length;
-		int tempShip = 0;
-		for(int i = 0; i < length; i++) {
-			for(int j = 1; j < (length - i); j++) {
-				if(ships[j-1] < ships[j]) {
-					tempShip = ships[j - 1];
-					ships[j-1] = ships[j];
-					ships[j] = tempShip;
+			Puzzle puzzle = Puzzle.read(filename);
+			
+			//search every possibility for an exact solution
+			if(exact) {
+				ExactSolver solver = new ExactSolver(puzzle);
+				//the exact search gets a minute unless told otherwise
+				ExactSolver.Outcome outcome = solver.solve((long) ((timeLimit == null ? 60 : timeLimit) * 1e9));
+				if(outcome == ExactSolver.Outcome.SOLVED) {
+					printBoard(puzzle, solver.getBoard());
+					System.out.println("SCORE: 0");
+				}
+				else if(outcome == ExactSolver.Outcome.UNSOLVABLE) {
+					System.out.println("No solution: the puzzle cannot be solved");
 				}
-			}
-		}
-				
-		//generate the board
-		N = xHits.length;
-		int boardSize = N * N;
-		bestBoard = new BitSet(boardSize);
-		
-		//set the direction to place the first ship (we will simply be alternating between the two)
-		vertical = true;
-		
-		//while there are still ships to place
-		while(shipsPlacedCount < ships.length) {
-			//get the ship size
-			shipSize = ships[currShip];
-			//reset flags
-			shipPlaced = false;			
-			//find a place to initially attempt to place the ship
-			initialShipPlacement();	
-			int initialStart = startPos;
-			int initialEnd = endPos;
-			//while we haven't placed the ship down
-			while(shipPlaced != true) {					
-				//check if this move is valid
-				moveValid = isValid(bestBoard);				
-				//if this move is a valid move
-				if(moveValid == true) {						
-					//place the ship on the board
-					bestBoard = placeShip(bestBoard);					
-					//set the shipPlaced flag
-					shipPlaced = true;
-					//unset the ignorePerimeters flag
-					ignorePerimeters = false;
-					//increment the number of ships placed and our next ship counter
-					shipsPlacedCount++;
-					currShip++;
-					//change the next ships placement direction
-					if(vertical == true) {
-						vertical = false;
-					}
-					else {
-						vertical = true;
-					}
-				}				
-				//if this is not a valid move we need to put the ship elsewhere
 				else {
-					nextPossibleShipPos(vertical);
-					if(initialStart == startPos && initialEnd == endPos) {
-						ignorePerimeters = true;
-					}
-				}	
-				
-			}
-		}
-	}
-    
-	// -------------------------------------------------------------------------------------------------------------------
-	
-	//find the next possible place to put the ship (DOES NOT CHECK VALIDITY)
-	public static void nextPossibleShipPos(boolean vert) {
-		
-		//if we are currently placing ships vertically
-		if(vert == true) {		
-			//check we can move the ship down and remain within horizontal bounds
-			if((endPos + N) < (N * N)) {
-				startPos+=N;
-				endPos+=N;
+					System.out.println("No solution found within the time limit");
+				}
+				return;
 			}
-			//if we cant move the ship down we must move it to the next col
-			else {
-				//check if we have reached the end of the cols
-				if(((startPos + 1) % N) == 0) {
-					//move the ship to the next row that Yhits permits						
-					//go through all the yHit values to find one that is equal to or greater than shipSize
-					for(int i = 0; i < yHits.length; i++) {
-						if(yHits[i] >= shipSize) {							
-							rowPos = i;
-							break;
-						}
-					}
-					//set the new start and end position of our ship
-					startPos = rowPos * N;
-					endPos = startPos + shipSize - 1;
-					//we are now placing the ship horizontally
-					vertical = false;
+			
+			//answer straight from the cache when this puzzle, or a turned or mirrored copy of it, was solved before,
+			//or searched with at least this budget
+			SolutionCache cache = null;
+			if(cacheFile != null) {
+				cache = new SolutionCache(SolutionCache.DEFAULT_ENTRIES, SolutionCache.DEFAULT_BYTES);
+				if(Files.exists(Paths.get(cacheFile))) {
+					cache.load(Paths.get(cacheFile));
 				}
-				//otherwise move the ship to the start of the next col
-				else {
-					//move the ship to the next col given xHits permits
-					//go through all the next xHit values to find one that is equal to or greater than shipSize
-					int nextCol = (startPos % N) + 1;
-					boolean noColRoom = true;
-					for(int i = nextCol; i < xHits.length; i++) {
-						if(xHits[i] >= shipSize) {
-							noColRoom = false;
-							colPos = i;
-							break;
-						}
-					}
-					//if there are no more valid columns for this ship, switch to rows
-					if(noColRoom == true) {
-						for(int i = 0; i < yHits.length; i++) {
-							if(yHits[i] >= shipSize) {
-								
-								rowPos = i;
-								break;
-							}
-						}
-						//set the new start and end position of our ship
-						startPos = rowPos * N;
-						endPos = startPos + shipSize - 1;
-						//we are now placing the ship horizontally
-						vertical = false;
+				Board cached = cache.get(puzzle, maxSolutions);
+				if(cached != null) {
+					System.err.println("Answered from the cache");
+					if(progress) {
+						System.out.println(String.format(Locale.ROOT, "{\"final\":true,\"score\":%d,\"cached\":true,\"board\":%s}",
+							puzzle.score(cached), Json.board(cached, puzzle.size())));
 					}
 					else {
-						//set the new start and end position of the ship
-						startPos = colPos;
-						endPos = startPos + ((shipSize - 1) * N);
+						printBoard(puzzle, cached);
+						System.out.println("SCORE: " + puzzle.score(cached));
 					}
+					return;
 				}
 			}
-		}
-		//if we are currently placing ships horizontally
-		else {
-			//check we can move the ship across and remain within vertical bounds
-			if( ((endPos + 1) % N) != 0) {
-				startPos++;
-				endPos++;
-			}
-			//if we cant move the ship across we must move it to the next row
-			else{
-				//check if we have reached the end of the rows
-				if( (startPos + N) >= (N*N) ) {
-					//move the ship to the next col given xHits permits
-					//go through all xHit values to find one that is equal to or greater than shipSize
-					for(int i = 0; i < xHits.length; i++) {
-						if(xHits[i] >= shipSize) {
-							colPos = i;
-							break;
-						}
+			
+			//search for the best solution we can find in maxSolutions attempts, or in the time or steps allowed
+			long timeLimitNanos = timeLimit == null ? 0 : (long) (timeLimit * 1e9);
+			//with --progress every improvement is written as a JSON line as soon as it is found
+			ProgressListener listener = progress ? progressPrinter(puzzle.size()) : null;
+			//with --strategy best every strategy gets the same budget and the lowest score wins, the time and step
+			//limits are shared out between them so the run as a whole still keeps to them
+			String[] strategies = strategyName.equals("best") ? SearchStrategy.NAMES : new String[] {strategyName};
+			if(listener != null && strategies.length > 1) {
+				listener = ProgressListener.bestOnly(listener);
+			}
+			long strategyTime = timeLimitNanos / strategies.length;
+			long strategyIterations = maxIterations > 0 ? Math.max(1, maxIterations / strategies.length) : 0;
+			Solver solver = null;
+			for(String name : strategies) {
+				Solver candidate;
+				//or run the replicas up the temperature ladder and take the best
+				if(replicas > 0) {
+					ReplicaExchange exchange = seed == null ? new ReplicaExchange(puzzle, replicas) 
+						: new ReplicaExchange(puzzle, replicas, seed);
+					exchange.setTemperatures(tEnd, t0);
+					exchange.setInterval(exchangeEvery);
+					exchange.setStrategy(name);
+					exchange.setProgressListener(listener);
+					exchange.setTimeLimit(strategyTime);
+					exchange.setMaxIterations(strategyIterations);
+					candidate = exchange.solve(maxSolutions);
+					//how often neighbouring temperatures swapped, to tell whether the ladder is too wide or too narrow
+					StringBuilder rates = new StringBuilder("Swaps kept between neighbouring temperatures:");
+					for(int k = 0; k + 1 < replicas; k++) {
+						long tried = exchange.swapsTried(k);
+						rates.append(String.format(Locale.ROOT, " %.2f", tried == 0 ? 0.0 : (double) exchange.swapsKept(k) / tried));
 					}
-					startPos = colPos;
-					endPos = startPos + ((shipSize - 1) * N);
-					//we are now placing the ship vertically
-					vertical = true;
+					System.err.println(rates);
 				}
-				//otherwise move the ship to the start of the next row
-				else {
-					//move the ship to the next row that yHits permits
-					//go through all the yHit values to find one that is equal to or greater than shipSize
-					int nextRow = (startPos / N) + 1;
-					boolean noRowRoom = true;
-					for(int i = nextRow; i < yHits.length; i++) {
-						if(yHits[i] >= shipSize) {
-							noRowRoom = false;
-							rowPos = i;
-							break;
-						}
-					}
-					//if there is no more valid rows for the ship, then switch to cols
-					if(noRowRoom == true) {
-						for(int i = 0; i < xHits.length; i++) {
-							if(xHits[i] >= shipSize) {
-								colPos = i;
-								break;
-							}
-						}
-						startPos = colPos;
-						endPos = startPos + ((shipSize - 1) * N);
-						//we are now placing the ship vertically
-						vertical = true;
+				else if(threads == 1) {
+					candidate = seed == null ? new Solver(puzzle) : new Solver(puzzle, seed);
+					candidate.setSchedule(schedule);
+					candidate.setStrategy(SearchStrategy.parse(name));
+					candidate.setProgressListener(listener);
+					candidate.setTimeLimit(strategyTime);
+					candidate.setMaxIterations(strategyIterations);
+					if(checkpointFile == null) {
+						candidate.solve(maxSolutions);
 					}
 					else {
-						startPos = rowPos * N;
-						endPos = startPos + shipSize - 1;
+						checkpointedSolve(candidate, maxSolutions, checkpointFile, checkpointEvery == null ? 60 : checkpointEvery, 
+							checkpointSteps, resume);
 					}
 				}
+				//or split the attempts between several chains and take the best
+				else {
+					ParallelSolver parallel = seed == null ? new ParallelSolver(puzzle, threads) 
+						: new ParallelSolver(puzzle, threads, seed);
+					parallel.setSchedule(schedule);
+					parallel.setStrategy(name);
+					parallel.setProgressListener(listener);
+					parallel.setTimeLimit(strategyTime);
+					parallel.setMaxIterations(strategyIterations);
+					candidate = parallel.solve(maxSolutions);
+				}
+				if(solver == null || candidate.getScore() < solver.getScore()) {
+					solver = candidate;
+				}
 			}
-		}
-	}
-	
-	// -------------------------------------------------------------------------------------------------------------------
-		
-	
-	//places a ship on the board
-	public static BitSet placeShip(BitSet board) {
-
-		//to keep track of the length of this ship
-		int sizeCounter = 0;		
-		//place the ship down depending on which direction we are placing it
-		if(vertical == true) {
-			for(int i = startPos; i <= endPos; i+=N) {
-				// set the bit at i to a 1	
-				board.set(i);
-				sizeCounter++;
+			if(strategies.length > 1) {
+				System.err.println("Best strategy: " + solver.getStrategy().name());
 			}
-		}	
-		else {
-			for(int i = startPos; i <= endPos; i++) {
-				//set the bit at i to a 1
-				board.set(i);
-				sizeCounter++;
+			//say on stderr when a limit cut the search short, so the board printed is the best found in time
+			if(solver.getStopReason() == Solver.StopReason.TIME_LIMIT) {
+				System.err.println("Time limit reached after " + solver.getIterations() + " iterations");
 			}
-		}		
-		//create a new ship if this is the initial solution
-		if(initial == true) {
-			Ship toPlace = new Ship(startPos, endPos, sizeCounter, vertical);
-			shipsOnBoard.add(toPlace);
-		}
-		//return the updated board
-		return board;
-	}
-	
-	// -------------------------------------------------------------------------------------------------------------------
-	
-	//checks if a ship placing is a valid move or not
-	public static boolean isValid(BitSet board) {
-		
-		//reset the position valid flag. Set to true as the position has not been proven invalid
-		boolean valid = true;
-		boolean leftBounds, rightBounds;
-		int loopStart, loopEnd, width;
-		
-		if(!ignorePerimeters) {
-			//check if we have sea above or below us or we are against the left or right
-			//if start is not against top of board
-			if(startPos - N >= 0) {
-				//if the value directly above the start position is not empty 
-				if(board.get((startPos - N)) == true){
-					//this move is invalid
-					valid = false;
-				}
+			//replicas always stop on a step limit, as their budget is counted in steps
+			else if(solver.getStopReason() == Solver.StopReason.MAX_ITERATIONS && (replicas == 0 || maxIterations > 0)) {
+				System.err.println("Iteration limit reached after " + solver.getIterations() + " iterations");
 			}
-			//if the end is not against the bottom of the board
-			if((endPos + N) < (N * N)) {
-				//if the value directly below the end position is not empty
-				if(board.get((endPos + N)) == true){
-					//this move is invalid
-					valid = false;
-				}
+			if(checkpointFile != null && solver.getStopReason() != Solver.StopReason.SOLVED) {
+				System.err.println("Checkpoint written to " + checkpointFile + ", continue with --resume");
 			}
-		}
-		//if we are against the left
-		if((startPos - 1) % N  == N - 1) {
-			leftBounds = true;
-		}
-		else {
-			leftBounds = false;
-		}
-		//if we are against the right
-		if(((startPos + 1) % N) == 0) {
-			rightBounds = true;
-		}
-		else {
-			rightBounds = false;
-		}
-		
-		//use a nested for loop structure to check the ship area + perimeter 
-		//get the start and end position of our loop
-		
-		if(!ignorePerimeters) {
-			loopStart = startPos - N - 1;
-			loopEnd = endPos + N;
-			//specify the width of our check zone					
-			if(vertical == true) {
-				//if its vertical then the width can only be three
-				width = 3;
+			
+			//print the best solution followed by the score, or finish the progress lines with a final one
+			Board bestBoard = solver.getBestBoard();
+			if(progress) {
+				System.out.println(String.format(Locale.ROOT, "{\"final\":true,\"score\":%d,\"evaluations\":%d,"
+					+ "\"iterations\":%d,\"stop\":%s,\"board\":%s}", solver.calculateFitness(bestBoard), 
+					solver.getEvaluations(), solver.getIterations(), 
+					Json.quote(solver.getStopReason().name().toLowerCase(Locale.ROOT)), Json.board(bestBoard, puzzle.size())));
 			}
 			else {
-				//if horizontal the width is the ship + 1 perimeter on either side of ship
-				width = shipSize + 2;
+				printBoard(puzzle, bestBoard);
+				System.out.println("SCORE: " +  solver.calculateFitness(bestBoard));
 			}
-		}
-		else {
-			loopStart = startPos;
-			loopEnd = endPos + 1;
-			if(vertical == true) {
-				//if its vertical then the width can only be one
-				width = 1;
+			//remember the board for next time
+			if(cache != null) {
+				cache.put(puzzle, bestBoard, solver.calculateFitness(bestBoard), maxSolutions);
+				cache.save(Paths.get(cacheFile));
 			}
-			else {
-				//if horizontal the width is the ship 
-				width = shipSize;
+			//write out what the search did, for the winning chain when there were several
+			if(statsFile != null) {
+				Files.write(Paths.get(statsFile), solver.getStats().toJson().getBytes(StandardCharsets.UTF_8));
 			}
 		}
-		
-		
-		
-		//loops through each row of to be ship + perimeter 
-		for(int i = loopStart; i < loopEnd; i+= N) {
-			//loops through each element in row of specified width
-			for(int j = i; j < i + width; j++) {
-				//if this ship placing is invalid
-				if (valid == false) {
-					break;
-				}
-				//if we are within board upper and lower bounds
-				if(j >= 0 && (j < (N * N))) {
-					//if this ship placing is against the left bounds, check that we are within bounds
-					if((leftBounds == true && ((j % N) != (N - 1))) || leftBounds == false) {
-						//if this ship placing is against the right bounds, check we are within bounds
-						if((rightBounds == true && ((j % N) != 0)) || rightBounds == false) {
-							//check if the bit is aready a ship
-							if(board.get(j) == true) {
-								valid = false;
-							}
-						}
-					}
-				}
-			}
-			if (valid == false) 
-				break;
+		catch (IOException | UncheckedIOException | IllegalArgumentException ex) {
+			System.err.println(ex.getMessage());
+			System.exit(1);
 		}
-		//return the validity of this move
-		return valid;
-	}
-	
-	// -------------------------------------------------------------------------------------------------------------------
-
-	//calculates the fitness of a board (the score)
-	public static int calculateFitness(BitSet board) {
-		
-		int diffY = 0;
-		int diffX = 0;
-		//loop through each row
-		for (int i = 0; i < N; i++) {
-			int startRow = i*10;
-			int rowTotal = 0;
-			//iterate through each bit in the row
-			for (int j = startRow; j < startRow + N; j++) {
-				//if ship is encountered increment the counter
-				if (board.get(j) == true) {
-					rowTotal++;
-				}
-			}
-			//get the difference between the yHits value and the number of ship segments in that row
-			diffY+=Math.abs(yHits[i] - rowTotal); 
-		}
-		//loop through each column
-		for (int i = 0; i < N; i++) {
-			int colTotal = 0;
-			//iterate through each bit in the column
-			for (int j = i; j < N*N; j+=N) {
-				if (board.get(j) == true) {
-					colTotal++;
-				}
-			}
-			//get the difference between the xHits value and the number of ship segments in that column
-			diffX+=Math.abs(xHits[i] - colTotal);
+		catch (Exception ex) {
+			System.err.println("Exception " + ex);
+			ex.printStackTrace();
 		}
-		//return the total
-		return (diffY + diffX);
 	}
- }
- 
- // -------------------------------------------------------------------------------------------------------------------
-
- //This is the inner Ship class. It holds information on each ship placed on the board
- class Ship {
- 	public int startPos_;
- 	public int endPos_;
- 	public int size_;
- 	public boolean vertical_;
-	
-	//create a ship given its start and end position, size and its direction
- 	public Ship(int startPos, int endPos, int size, boolean vertical) {
- 		startPos_ = startPos;
- 		endPos_ = endPos;
- 		size_ = size;
- 		vertical_ = vertical;
- 	}
  }
\ No newline at end of file
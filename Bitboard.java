@@ -0,0 +1,282 @@
+import java.util.Arrays;
+
+/**
+ *  Heuristic Algorithms
+ *  Bitboard.java
+ *  An N by N board packed into longs. Every row starts on a fresh word and takes up W = ceil(N / 64) words,
+ *	column c of a row being bit (c % 64) of word (c / 64). Keeping rows word aligned means a rectangle of cells,
+ *	such as a ship or a ship and its halo, is the same one or two word masks repeated down its rows, so it
+ *	can be tested, set or cleared a whole word at a time however large N is.
+ *	Cells are still numbered row * N + col as everywhere else.
+ *	Whole-board row and column totals go through a BoardCounter, columns being counted as the rows of the board
+ *	transposed 64 by 64 cells at a time.
+ *	This is the dense Board; see SparseBoard for boards with very few ships on them.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *  
+ **/
+
+
+ public final class Bitboard implements Board {
+	
+	//the length of the board
+	private final int N;
+	//the number of words in each row
+	private final int W;
+	//the rows of the board, W words each
+	private final long[] words;
+	//counts the bits in whole rows, with the vector kernel when it can be used
+	private static final BoardCounter COUNTER = BoardCounter.load();
+	//the board transposed, made the first time the columns are counted, or null
+	private Bitboard transposed;
+	//the 64 by 64 block transposeInto works on, made the first time it is called, or null
+	private long[] block;
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//create an empty N by N board
+	public Bitboard(int N) {
+		this.N = N;
+		this.W = (N + 63) >>> 6;
+		this.words = new long[N * W];
+	}
+	
+	//create a copy of a board
+	public Bitboard(Bitboard board) {
+		this.N = board.N;
+		this.W = board.W;
+		this.words = board.words.clone();
+	}
+	
+	//how many bytes an N by N board takes
+	public static long bytes(int N) {
+		return 8L * N * ((N + 63) >>> 6);
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//the length of the board
+	@Override
+	public int size() {
+		return N;
+	}
+	
+	//is there a ship in the cell
+	@Override
+	public boolean get(int cell) {
+		return get(cell / N, cell % N);
+	}
+	
+	@Override
+	public boolean get(int row, int col) {
+		return (words[row * W + (col >>> 6)] & (1L << col)) != 0;
+	}
+	
+	@Override
+	public void set(int cell) {
+		int col = cell % N;
+		words[(cell / N) * W + (col >>> 6)] |= 1L << col;
+	}
+	
+	@Override
+	public void clear(int cell) {
+		int col = cell % N;
+		words[(cell / N) * W + (col >>> 6)] &= ~(1L << col);
+	}
+	
+	//the number of ship cells in a row
+	@Override
+	public int rowCount(int row) {
+		int count = 0;
+		for(int w = row * W; w < (row + 1) * W; w++) {
+			count += Long.bitCount(words[w]);
+		}
+		return count;
+	}
+	
+	//the number of ship cells in every row, into counts
+	@Override
+	public void rowCounts(int[] counts) {
+		rowCounts(counts, COUNTER);
+	}
+	
+	//the same, counted with the given kernel
+	public void rowCounts(int[] counts, BoardCounter counter) {
+		counter.rowCounts(words, W, N, counts);
+	}
+	
+	//the number of ship cells in every column, into counts, counted as the rows of the transposed board
+	@Override
+	public void colCounts(int[] counts) {
+		if(transposed == null) {
+			transposed = new Bitboard(N);
+		}
+		transposeInto(transposed);
+		transposed.rowCounts(counts);
+	}
+	
+	//the kernel rowCounts and colCounts count with
+	public static BoardCounter counter() {
+		return COUNTER;
+	}
+	
+	//makes target, a board of the same size, this board flipped about its main diagonal, so the columns of this
+	//board are the rows of target. Each 64 by 64 block of cells is gathered into 64 words, transposed in place by
+	//swapping ever smaller sub-blocks across its diagonal, and written to the mirror block of target
+	public void transposeInto(Bitboard target) {
+		
+		if(block == null) {
+			block = new long[64];
+		}
+		for(int rowBlock = 0; rowBlock < W; rowBlock++) {
+			int rows = Math.min(64, N - rowBlock * 64);
+			for(int w = 0; w < W; w++) {
+				//rows past the bottom of the board are water
+				for(int k = 0; k < 64; k++) {
+					block[k] = k < rows ? words[(rowBlock * 64 + k) * W + w] : 0;
+				}
+				transpose64(block);
+				//column w * 64 + k of this block is row w * 64 + k of target, in word rowBlock
+				int cols = Math.min(64, N - w * 64);
+				for(int k = 0; k < cols; k++) {
+					target.words[(w * 64 + k) * W + rowBlock] = block[k];
+				}
+			}
+		}
+	}
+	
+	//transposes a 64 by 64 block of bits, bit c of word r changing places with bit r of word c:
+	//first the 32 by 32 quarters off the diagonal swap, then the 16 by 16 quarters within each quarter, and so on
+	private static void transpose64(long[] a) {
+		
+		long mask = 0x00000000ffffffffL;
+		for(int j = 32; j != 0; j >>= 1, mask ^= mask << j) {
+			for(int k = 0; k < 64; k = ((k | j) + 1) & ~j) {
+				long t = ((a[k] >>> j) ^ a[k | j]) & mask;
+				a[k] ^= t << j;
+				a[k | j] ^= t;
+			}
+		}
+	}
+	
+	//makes every cell water
+	@Override
+	public void clearAll() {
+		Arrays.fill(words, 0);
+	}
+	
+	//makes this board the same as another of the same size
+	@Override
+	public void copyFrom(Board board) {
+		if(board instanceof Bitboard) {
+			System.arraycopy(((Bitboard) board).words, 0, words, 0, words.length);
+		}
+		else {
+			Board.copyCells(board, this);
+		}
+	}
+	
+	@Override
+	public Board copy() {
+		return new Bitboard(this);
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//the rectangle methods work out the words the columns span in each row, and the masks of the first and last
+	
+	@Override
+	public boolean anyInRect(int rowFrom, int rowTo, int colFrom, int colTo) {
+		return anyInRect(rowFrom, rowTo, colFrom >>> 6, colTo >>> 6, maskLo(colFrom, colTo), maskHi(colTo));
+	}
+	
+	@Override
+	public void setRect(int rowFrom, int rowTo, int colFrom, int colTo) {
+		setRect(rowFrom, rowTo, colFrom >>> 6, colTo >>> 6, maskLo(colFrom, colTo), maskHi(colTo));
+	}
+	
+	@Override
+	public void clearRect(int rowFrom, int rowTo, int colFrom, int colTo) {
+		clearRect(rowFrom, rowTo, colFrom >>> 6, colTo >>> 6, maskLo(colFrom, colTo), maskHi(colTo));
+	}
+	
+	//bits colFrom % 64 upwards of the first word, cut off at colTo % 64 too when both are in the same word
+	private static long maskLo(int colFrom, int colTo) {
+		long mask = -1L << colFrom;
+		return (colFrom >>> 6) == (colTo >>> 6) ? mask & maskHi(colTo) : mask;
+	}
+	
+	//bits up to colTo % 64 of the last word
+	private static long maskHi(int colTo) {
+		return -1L >>> (63 - (colTo & 63));
+	}
+	
+	//the word versions take rows rowFrom to rowTo and, in each row, words wordFrom to wordTo. 
+	//maskLo is applied to the first word and maskHi to the last (if it is a different word), every word in between 
+	//is used whole
+	
+	//is any cell in the rectangle a ship
+	private boolean anyInRect(int rowFrom, int rowTo, int wordFrom, int wordTo, long maskLo, long maskHi) {
+		
+		for(int base = rowFrom * W; base <= rowTo * W; base += W) {
+			if((words[base + wordFrom] & maskLo) != 0) {
+				return true;
+			}
+			if(wordTo != wordFrom) {
+				if((words[base + wordTo] & maskHi) != 0) {
+					return true;
+				}
+				for(int w = base + wordFrom + 1; w < base + wordTo; w++) {
+					if(words[w] != 0) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+	
+	//make every cell in the rectangle a ship
+	private void setRect(int rowFrom, int rowTo, int wordFrom, int wordTo, long maskLo, long maskHi) {
+		
+		for(int base = rowFrom * W; base <= rowTo * W; base += W) {
+			words[base + wordFrom] |= maskLo;
+			if(wordTo != wordFrom) {
+				words[base + wordTo] |= maskHi;
+				for(int w = base + wordFrom + 1; w < base + wordTo; w++) {
+					words[w] = -1L;
+				}
+			}
+		}
+	}
+	
+	//make every cell in the rectangle water
+	private void clearRect(int rowFrom, int rowTo, int wordFrom, int wordTo, long maskLo, long maskHi) {
+		
+		for(int base = rowFrom * W; base <= rowTo * W; base += W) {
+			words[base + wordFrom] &= ~maskLo;
+			if(wordTo != wordFrom) {
+				words[base + wordTo] &= ~maskHi;
+				for(int w = base + wordFrom + 1; w < base + wordTo; w++) {
+					words[w] = 0;
+				}
+			}
+		}
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	@Override
+	public boolean equals(Object o) {
+		if(!(o instanceof Bitboard)) {
+			return false;
+		}
+		Bitboard board = (Bitboard) o;
+		return N == board.N && Arrays.equals(words, board.words);
+	}
+	
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(words);
+	}
+ }
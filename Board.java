@@ -0,0 +1,127 @@
+/**
+ *  Heuristic Algorithms
+ *  Board.java
+ *  An N by N board of ship and water cells, numbered row * N + col. There are two ways of holding one:
+ *	 - Bitboard packs every cell into a bit, so it takes N * N / 8 bytes however few ships there are, and works
+ *	   on a word of cells at a time
+ *	 - SparseBoard keeps only the ship cells, in an open addressing hash set, with the count of every row and
+ *	   column kept as it goes, so it takes space for the ships and the lines alone
+ *	create picks whichever is smaller by enough to be worth the slower cell at a time work of a sparse board.
+ *	The rectangle methods take a block of rows and columns, both inclusive, such as a ship or a ship and its halo.
+ *	A board is only ever copied from or compared with a board of the same size, and equals only holds between
+ *	two boards held the same way.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ public interface Board {
+
+	//how many times smaller a sparse board must be than a dense one to be used
+	int SPARSE_SAVING = 4;
+
+	//the length of the board
+	int size();
+
+	//is there a ship in the cell
+	boolean get(int cell);
+
+	boolean get(int row, int col);
+
+	void set(int cell);
+
+	void clear(int cell);
+
+	//the number of ship cells in a row
+	int rowCount(int row);
+
+	//the number of ship cells in every row, into counts
+	void rowCounts(int[] counts);
+
+	//the number of ship cells in every column, into counts
+	void colCounts(int[] counts);
+
+	//is any cell in the rectangle a ship
+	boolean anyInRect(int rowFrom, int rowTo, int colFrom, int colTo);
+
+	//make every cell in the rectangle a ship
+	void setRect(int rowFrom, int rowTo, int colFrom, int colTo);
+
+	//make every cell in the rectangle water
+	void clearRect(int rowFrom, int rowTo, int colFrom, int colTo);
+
+	//makes every cell water
+	void clearAll();
+
+	//makes this board the same as another of the same size
+	void copyFrom(Board board);
+
+	//a copy of this board, held the same way
+	Board copy();
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//an empty N by N board for about cells ship cells, sparse if that saves enough space over a dense one.
+	//-Dbattleship.board=dense or sparse picks one whatever the density
+	static Board create(int N, long cells) {
+
+		switch(System.getProperty("battleship.board", "auto")) {
+			case "dense":
+				return new Bitboard(N);
+			case "sparse":
+				return new SparseBoard(N, cells);
+			default:
+				return SparseBoard.bytes(N, cells) * SPARSE_SAVING < Bitboard.bytes(N) ? new SparseBoard(N, cells) : new Bitboard(N);
+		}
+	}
+
+	//the ship cells of a board, in order, found without looking at every cell: rows with no ships are skipped,
+	//and each row is only searched between the first and last columns with ships, until its last ship is found
+	static int[] cells(Board board) {
+
+		int N = board.size();
+		int[] rows = new int[N];
+		int[] cols = new int[N];
+		board.rowCounts(rows);
+		board.colCounts(cols);
+		int colFrom = 0;
+		int colTo = N - 1;
+		while(colFrom < N && cols[colFrom] == 0) {
+			colFrom++;
+		}
+		while(colTo >= colFrom && cols[colTo] == 0) {
+			colTo--;
+		}
+		int count = 0;
+		for(int row = 0; row < N; row++) {
+			count += rows[row];
+		}
+		int[] cells = new int[count];
+		int found = 0;
+		for(int row = 0; row < N; row++) {
+			int left = rows[row];
+			for(int col = colFrom; left > 0 && col <= colTo; col++) {
+				if(board.get(row, col)) {
+					cells[found++] = row * N + col;
+					left--;
+				}
+			}
+		}
+		return cells;
+	}
+
+	//copies the cells of one board onto another of the same size however each is held, a cell at a time
+	static void copyCells(Board from, Board to) {
+
+		to.clearAll();
+		int N = from.size();
+		for(int row = 0; row < N; row++) {
+			for(int col = 0; col < N; col++) {
+				if(from.get(row, col)) {
+					to.set(row * N + col);
+				}
+			}
+		}
+	}
+ }
@@ -0,0 +1,44 @@
+/**
+ *  Heuristic Algorithms
+ *  BoardCounter.java
+ *  The counting kernel behind calculateFitness: how many bits are set in each row of a Bitboard's words.
+ *	Column totals are counted the same way, as the rows of the transposed board (see Bitboard.colCounts).
+ *	 - ScalarBoardCounter counts a word at a time with Long.bitCount, and always works
+ *	 - VectorBoardCounter, in vector/, counts several words at once with the jdk.incubator.vector API. It is only
+ *	   compiled and used when asked for (see the README), as javac and java both need --add-modules for it
+ *	Bitboard uses load(), which falls back to the scalar kernel whenever the vector one cannot be used.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ public interface BoardCounter {
+
+	//the name of the vector kernel's class, looked up by name so this tree compiles without it
+	String VECTOR_CLASS = "VectorBoardCounter";
+
+	//sets counts[r] to the number of bits set in words r * W up to (r + 1) * W, for each of the first rows rows
+	void rowCounts(long[] words, int W, int rows, int[] counts);
+
+	//the name the kernel is reported by
+	String name();
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//the vector kernel if its class is on the class path and the jdk.incubator.vector module is present,
+	//otherwise the scalar one. -Dbattleship.vector=false keeps to the scalar kernel
+	static BoardCounter load() {
+
+		if(!Boolean.parseBoolean(System.getProperty("battleship.vector", "true"))) {
+			return new ScalarBoardCounter();
+		}
+		try {
+			return (BoardCounter) Class.forName(VECTOR_CLASS).getDeclaredConstructor().newInstance();
+		}
+		//no vector class compiled, or the module was not added so it cannot be linked
+		catch (ReflectiveOperationException | LinkageError ex) {
+			return new ScalarBoardCounter();
+		}
+	}
+ }
@@ -0,0 +1,281 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ *  Heuristic Algorithms
+ *  ExactSolver.java
+ *  Searches for an exact solution by depth first search, placing the ships from largest to smallest.
+ *	Each ship only tries the placements in its PlacementTable, which leaves out the placements the Presolve rules
+ *	or the puzzle's hints rule out, and a placement is pruned if:
+ *	 - it touches a ship already placed (the no-touch rule, checked with the placement's halo mask)
+ *	 - it puts more ship cells in a row or column than its hits allow
+ *	 - it leaves a row or column needing more ship cells than it has cells left that are not next to a ship
+ *	 - it leaves no row or column long enough for the next ship
+ *	Ships of the same length only ever take increasing placements, so each set of positions is tried once.
+ *	The search stops at the first solution found, once every possibility has been ruled out, 
+ *	or when its time budget runs out, and it says which of the three happened.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *  
+ **/
+
+
+ public class ExactSolver {
+	
+	//how a search ended
+	public enum Outcome { SOLVED, UNSOLVABLE, TIMED_OUT }
+	
+	//how many placements to try between looks at the clock
+	private static final int CLOCK_INTERVAL = 1024;
+	
+	//the puzzle being solved
+	private final Puzzle puzzle;
+	//the ships, largest first, and the hits
+	private final int[] ships;
+	private final int[] xHits;
+	private final int[] yHits;
+	//the length of the board
+	private final int N;
+	//every legal placement for each ship length, indexed by length
+	private final PlacementTable[] tables;
+	//the cells the hits decide on their own
+	private final Presolve presolve;
+	//the board being built
+	private final Bitboard board;
+	//how many more ship cells each row and column needs
+	private final int[] rowRemaining;
+	private final int[] colRemaining;
+	//how many placed ships have each cell in their halo, and how many uncovered cells each row and column has left
+	private final int[] cover;
+	private final int[] rowFree;
+	private final int[] colFree;
+	//the placement of each ship on the board
+	private final int[] placements;
+	//when to give up, and how many placements have been tried
+	private long deadline;
+	private long nodes;
+	private boolean timedOut;
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	public ExactSolver(Puzzle puzzle) {
+		
+		this.puzzle = puzzle;
+		this.N = puzzle.size();
+		this.xHits = puzzle.getXHits();
+		this.yHits = puzzle.getYHits();
+		//order the ships from largest to smallest
+		int[] sorted = puzzle.getShips();
+		Arrays.sort(sorted);
+		ships = new int[sorted.length];
+		for(int i = 0; i < sorted.length; i++) {
+			ships[i] = sorted[sorted.length - 1 - i];
+		}
+		this.presolve = new Presolve(xHits, yHits, puzzle.getHints());
+		this.tables = PlacementTable.build(ships, xHits, yHits, presolve);
+		this.board = new Bitboard(N);
+		this.rowRemaining = yHits.clone();
+		this.colRemaining = xHits.clone();
+		this.cover = new int[N * N];
+		this.rowFree = new int[N];
+		this.colFree = new int[N];
+		Arrays.fill(rowFree, N);
+		Arrays.fill(colFree, N);
+		this.placements = new int[ships.length];
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//searches until a solution is found, the puzzle is shown to have none, or timeLimitNanos have passed
+	public Outcome solve(long timeLimitNanos) {
+		
+		deadline = System.nanoTime() + timeLimitNanos;
+		//the ships must exactly fill both sets of hits
+		int shipCells = 0, xTotal = 0, yTotal = 0;
+		for(int i = 0; i < ships.length; i++) {
+			shipCells += ships[i];
+		}
+		for(int i = 0; i < N; i++) {
+			xTotal += xHits[i];
+			yTotal += yHits[i];
+		}
+		if(shipCells != xTotal || shipCells != yTotal || presolve.isContradiction()) {
+			return Outcome.UNSOLVABLE;
+		}
+		if(search(0)) {
+			return Outcome.SOLVED;
+		}
+		return timedOut ? Outcome.TIMED_OUT : Outcome.UNSOLVABLE;
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//places ship i and every ship after it, returning true once they are all placed
+	private boolean search(int i) {
+		
+		if(i == ships.length) {
+			//the tables keep every ship off the water hints, but only a full board shows the ship hints are all covered
+			return puzzle.hintViolations(board) == 0;
+		}
+		//the ship must fit in some row or column that still needs that many cells
+		int length = ships[i];
+		if(!roomFor(length)) {
+			return false;
+		}
+		PlacementTable table = tables[length];
+		//a ship the same length as the one before it only tries the placements after that ship's
+		int first = (i > 0 && ships[i - 1] == length) ? placements[i - 1] + 1 : 0;
+		for(int p = first; p < table.size(); p++) {
+			//check the clock every so often
+			if(++nodes % CLOCK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+				timedOut = true;
+			}
+			if(timedOut) {
+				return false;
+			}
+			//the no-touch rule: the ship and its halo must be clear of every ship already placed
+			if(!fitsHits(table, p) || table.collides(board, p, false)) {
+				continue;
+			}
+			place(table, p, 1);
+			placements[i] = p;
+			if(capacityLeft(table, p) && search(i + 1)) {
+				return true;
+			}
+			place(table, p, -1);
+		}
+		return false;
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//does placement p leave every row and column it crosses within its hits
+	private boolean fitsHits(PlacementTable table, int p) {
+		
+		int length = table.length();
+		int row = table.start(p) / N;
+		int col = table.start(p) % N;
+		if(table.isVertical(p)) {
+			if(colRemaining[col] < length) {
+				return false;
+			}
+			for(int r = row; r < row + length; r++) {
+				if(rowRemaining[r] < 1) {
+					return false;
+				}
+			}
+		}
+		else {
+			if(rowRemaining[row] < length) {
+				return false;
+			}
+			for(int c = col; c < col + length; c++) {
+				if(colRemaining[c] < 1) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+	
+	//after placement p, do the rows and columns around it still have enough uncovered cells for the ship cells they need
+	private boolean capacityLeft(PlacementTable table, int p) {
+		
+		int length = table.length();
+		int row = table.start(p) / N;
+		int col = table.start(p) % N;
+		int lastRow = table.isVertical(p) ? row + length - 1 : row;
+		int lastCol = table.isVertical(p) ? col : col + length - 1;
+		//only the rows and columns the halo crosses have lost any cells
+		for(int r = Math.max(row - 1, 0); r <= Math.min(lastRow + 1, N - 1); r++) {
+			if(rowRemaining[r] > rowFree[r]) {
+				return false;
+			}
+		}
+		for(int c = Math.max(col - 1, 0); c <= Math.min(lastCol + 1, N - 1); c++) {
+			if(colRemaining[c] > colFree[c]) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	//is there still a row or column needing at least length more cells
+	private boolean roomFor(int length) {
+		
+		for(int i = 0; i < N; i++) {
+			if(rowRemaining[i] >= length || colRemaining[i] >= length) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//puts the ship at placement p on the board (delta 1) or takes it off again (delta -1)
+	private void place(PlacementTable table, int p, int delta) {
+		
+		int length = table.length();
+		int row = table.start(p) / N;
+		int col = table.start(p) % N;
+		boolean vert = table.isVertical(p);
+		if(delta > 0) {
+			table.place(board, p);
+		}
+		else {
+			table.remove(board, p);
+		}
+		//update the cells each row and column still needs
+		for(int k = 0; k < length; k++) {
+			rowRemaining[vert ? row + k : row] -= delta;
+			colRemaining[vert ? col : col + k] -= delta;
+		}
+		//update the halo cover, a cell is only free while nothing covers it
+		int lastRow = vert ? row + length - 1 : row;
+		int lastCol = vert ? col : col + length - 1;
+		for(int r = Math.max(row - 1, 0); r <= Math.min(lastRow + 1, N - 1); r++) {
+			for(int c = Math.max(col - 1, 0); c <= Math.min(lastCol + 1, N - 1); c++) {
+				int cell = r * N + c;
+				if(delta > 0 && cover[cell]++ == 0) {
+					rowFree[r]--;
+					colFree[c]--;
+				}
+				else if(delta < 0 && --cover[cell] == 0) {
+					rowFree[r]++;
+					colFree[c]++;
+				}
+			}
+		}
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//the puzzle this solver is working on
+	public Puzzle getPuzzle() {
+		return puzzle;
+	}
+	
+	//a copy of the board, which is the solution once solve has returned SOLVED
+	public Bitboard getBoard() {
+		return new Bitboard(board);
+	}
+	
+	//the ships of the solution, largest first
+	public List<Ship> getShips() {
+		
+		List<Ship> placed = new ArrayList<Ship>();
+		for(int i = 0; i < ships.length; i++) {
+			PlacementTable table = tables[ships[i]];
+			int p = placements[i];
+			placed.add(new Ship(table.start(p), table.end(p), ships[i], table.isVertical(p), p));
+		}
+		return placed;
+	}
+	
+	//how many placements the search tried
+	public long getNodes() {
+		return nodes;
+	}
+ }
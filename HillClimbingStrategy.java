@@ -0,0 +1,27 @@
+/**
+ *  Heuristic Algorithms
+ *  HillClimbingStrategy.java
+ *  Hill climbing for the whole budget: each step moves one random ship to the next place round its table
+ *	that it fits, and keeps the board if it is no worse.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ public class HillClimbingStrategy implements SearchStrategy {
+
+	@Override
+	public void prepare(Solver solver, int maxSolutions) {
+	}
+
+	@Override
+	public void step(Solver solver) {
+		solver.climbingStep();
+	}
+
+	@Override
+	public String name() {
+		return "hill";
+	}
+ }
@@ -0,0 +1,132 @@
+/**
+ *  Heuristic Algorithms
+ *  Hint.java
+ *  A cell a puzzle gives away, the way printed Battleship Solitaire puzzles reveal a few cells to start from:
+ *	water, or a ship part that may also say which part it is. In a puzzle file the hints are an optional fourth line
+ *	of row,col,kind entries, rows and columns counted from 0, with these kinds:
+ *	 ~ water   x some part of a ship   o a one-cell ship   m the middle of a ship of 3 or more
+ *	 < the left end and > the right end of a ship lying across, ^ the top end and v the bottom end of one standing up
+ *	A board that goes against a hint (a ship on a water hint, or a ship hint left empty) scores PENALTY for it.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ public final class Hint {
+
+	//what a hint says about its cell, and the character it is written as
+	public enum Kind {
+		WATER('~'), SHIP('x'), SUB('o'), MIDDLE('m'), LEFT('<'), RIGHT('>'), TOP('^'), BOTTOM('v');
+
+		private final char symbol;
+
+		Kind(char symbol) {
+			this.symbol = symbol;
+		}
+
+		public char symbol() {
+			return symbol;
+		}
+
+		//is the cell part of a ship
+		public boolean isShip() {
+			return this != WATER;
+		}
+
+		//the same hint on the board turned as SolutionCache turns it: 4 transposes, then 2 reverses the columns
+		//and 1 reverses the rows
+		Kind turned(int transform) {
+			Kind kind = this;
+			if((transform & 4) != 0) {
+				kind = kind == LEFT ? TOP : kind == TOP ? LEFT : kind == RIGHT ? BOTTOM : kind == BOTTOM ? RIGHT : kind;
+			}
+			if((transform & 2) != 0) {
+				kind = kind == LEFT ? RIGHT : kind == RIGHT ? LEFT : kind;
+			}
+			if((transform & 1) != 0) {
+				kind = kind == TOP ? BOTTOM : kind == BOTTOM ? TOP : kind;
+			}
+			return kind;
+		}
+
+		static Kind of(char symbol) {
+			for(Kind kind : values()) {
+				if(kind.symbol == symbol) {
+					return kind;
+				}
+			}
+			throw new IllegalArgumentException("Unknown hint kind " + symbol + ", use one of ~ x o m < > ^ v");
+		}
+	}
+
+	//how much a board's score goes up for each hint it goes against, as much as one misplaced ship cell costs
+	public static final int PENALTY = 2;
+
+	private final int row;
+	private final int col;
+	private final Kind kind;
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	public Hint(int row, int col, Kind kind) {
+		if(row < 0 || col < 0) {
+			throw new IllegalArgumentException("Hint cell " + row + "," + col + " is off the board");
+		}
+		this.row = row;
+		this.col = col;
+		this.kind = kind;
+	}
+
+	//reads a hint written row,col,kind
+	public static Hint parse(String s) {
+		String[] parts = s.split(",");
+		if(parts.length != 3 || parts[2].length() != 1) {
+			throw new IllegalArgumentException("Hint " + s + " is not row,col,kind");
+		}
+		return new Hint(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Kind.of(parts[2].charAt(0)));
+	}
+
+	//the hint a solved board would give for a cell: water, or which part of its ship the cell is.
+	//Ships do not touch, so a ship cell's neighbours along its row or column say which way the ship lies
+	public static Hint of(Board board, int row, int col) {
+		int N = board.size();
+		if(!board.get(row, col)) {
+			return new Hint(row, col, Kind.WATER);
+		}
+		boolean left = col > 0 && board.get(row, col - 1);
+		boolean right = col < N - 1 && board.get(row, col + 1);
+		boolean up = row > 0 && board.get(row - 1, col);
+		boolean down = row < N - 1 && board.get(row + 1, col);
+		Kind kind;
+		if(left || right) {
+			kind = left && right ? Kind.MIDDLE : right ? Kind.LEFT : Kind.RIGHT;
+		}
+		else if(up || down) {
+			kind = up && down ? Kind.MIDDLE : down ? Kind.TOP : Kind.BOTTOM;
+		}
+		else {
+			kind = Kind.SUB;
+		}
+		return new Hint(row, col, kind);
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	public int getRow() {
+		return row;
+	}
+
+	public int getCol() {
+		return col;
+	}
+
+	public Kind getKind() {
+		return kind;
+	}
+
+	@Override
+	public String toString() {
+		return row + "," + col + "," + kind.symbol;
+	}
+ }
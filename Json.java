@@ -0,0 +1,75 @@
+/**
+ *  Heuristic Algorithms
+ *  Json.java
+ *  The few helpers needed to write results as JSON without pulling in a library.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *  
+ **/
+
+
+ final class Json {
+	
+	private Json() {
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//quotes a string, escaping anything JSON does not allow inside one
+	public static String quote(String s) {
+		
+		StringBuilder sb = new StringBuilder(s.length() + 2);
+		sb.append('"');
+		for(int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			switch(c) {
+				case '"':
+					sb.append("\\\"");
+					break;
+				case '\\':
+					sb.append("\\\\");
+					break;
+				case '\n':
+					sb.append("\\n");
+					break;
+				case '\r':
+					sb.append("\\r");
+					break;
+				case '\t':
+					sb.append("\\t");
+					break;
+				default:
+					//any other control character is written as a unicode escape
+					if(c < 0x20) {
+						sb.append(String.format("\\u%04x", (int) c));
+					}
+					else {
+						sb.append(c);
+					}
+			}
+		}
+		sb.append('"');
+		return sb.toString();
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//writes a board as an array of N rows, using the same X and ~ as printBoard
+	public static String board(Board board, int N) {
+		
+		StringBuilder sb = new StringBuilder(N * (N + 3) + 2);
+		sb.append('[');
+		for(int row = 0; row < N; row++) {
+			if(row > 0) {
+				sb.append(',');
+			}
+			sb.append('"');
+			for(int col = 0; col < N; col++) {
+				sb.append(board.get(row * N + col) ? 'X' : '~');
+			}
+			sb.append('"');
+		}
+		sb.append(']');
+		return sb.toString();
+	}
+ }
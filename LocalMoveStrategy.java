@@ -0,0 +1,130 @@
+/**
+ *  Heuristic Algorithms
+ *  LocalMoveStrategy.java
+ *  Small moves instead of lifting ships and rescanning their tables from the start, which piles the ships up at the
+ *	top left and throws most of the board away on every step. Each step makes one of four moves:
+ *	 - shift a ship one cell up, down, left or right
+ *	 - rotate a ship a quarter turn about one of its ends
+ *	 - swap two ships of different lengths, each taking the other's start cell and direction
+ *	 - relocate a ship to a random placement in its table
+ *	A move is made straight on the board and scored from the cells that changed, so it costs O(ship length) where
+ *	a rescan costs O(N*N). It is kept following the Solver's annealing schedule for three quarters of the solutions,
+ *	and only if no worse after that, the way AnnealingStrategy splits the budget. A move onto a placement the
+ *	tables pruned, or next to another ship, is not made and does not count as a solution.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ public class LocalMoveStrategy implements SearchStrategy {
+
+	//out of 10 steps, how many try a shift, a rotation and a swap, the rest relocate a ship
+	private static final int SHIFTS = 4, ROTATIONS = 2, SWAPS = 2;
+	//how many ships are drawn looking for one of a different length to swap with
+	private static final int SWAP_TRIES = 8;
+
+	//the Solver sets the annealing up in its own prepare
+	@Override
+	public void prepare(Solver solver, int maxSolutions) {
+	}
+
+	@Override
+	public void step(Solver solver) {
+
+		solver.beginMove();
+		int ship = solver.nextRandom(solver.shipCount());
+		int move = solver.nextRandom(10);
+		if(move < SHIFTS) {
+			shift(solver, ship);
+		}
+		else if(move < SHIFTS + ROTATIONS) {
+			rotate(solver, ship);
+		}
+		else if(move < SHIFTS + ROTATIONS + SWAPS) {
+			swap(solver, ship);
+		}
+		else {
+			relocate(solver, ship);
+		}
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//moves the ship one cell in a random direction
+	private void shift(Solver solver, int ship) {
+
+		int N = solver.getPuzzle().size();
+		int start = solver.shipStart(ship);
+		int row = start / N;
+		int col = start % N;
+		int direction = solver.nextRandom(4);
+		row += direction == 0 ? -1 : direction == 1 ? 1 : 0;
+		col += direction == 2 ? -1 : direction == 3 ? 1 : 0;
+		int p = row < 0 || row >= N || col < 0 || col >= N ? -1
+			: solver.placementOf(solver.shipLength(ship), row * N + col, solver.shipVertical(ship));
+		solver.moveShips(ship, p, -1, -1);
+	}
+
+	//turns the ship a quarter turn about its first or last cell, to either side.
+	//A one-cell ship looks the same turned, so it shifts instead
+	private void rotate(Solver solver, int ship) {
+
+		int length = solver.shipLength(ship);
+		if(length == 1) {
+			shift(solver, ship);
+			return;
+		}
+		int N = solver.getPuzzle().size();
+		int start = solver.shipStart(ship);
+		boolean vert = solver.shipVertical(ship);
+		int choice = solver.nextRandom(4);
+		//the cell the ship turns about
+		int pivot = (choice & 1) == 0 ? start : start + (length - 1) * (vert ? N : 1);
+		int row = pivot / N;
+		int col = pivot % N;
+		//the turned ship runs on from the pivot, or back from it
+		if((choice & 2) != 0) {
+			if(vert) {
+				col -= length - 1;
+			}
+			else {
+				row -= length - 1;
+			}
+		}
+		int p = row < 0 || col < 0 ? -1 : solver.placementOf(length, row * N + col, !vert);
+		solver.moveShips(ship, p, -1, -1);
+	}
+
+	//swaps the ship with one of a different length, if one turns up in a few draws
+	private void swap(Solver solver, int ship) {
+
+		int length = solver.shipLength(ship);
+		int other = -1;
+		for(int i = 0; i < SWAP_TRIES && other < 0; i++) {
+			int candidate = solver.nextRandom(solver.shipCount());
+			if(solver.shipLength(candidate) != length) {
+				other = candidate;
+			}
+		}
+		if(other < 0) {
+			relocate(solver, ship);
+			return;
+		}
+		int p = solver.placementOf(length, solver.shipStart(other), solver.shipVertical(other));
+		int q = solver.placementOf(solver.shipLength(other), solver.shipStart(ship), solver.shipVertical(ship));
+		solver.moveShips(ship, p, other, q);
+	}
+
+	//moves the ship to a random placement in its table
+	private void relocate(Solver solver, int ship) {
+
+		int p = solver.nextRandom(solver.placementCount(solver.shipLength(ship)));
+		solver.moveShips(ship, p == solver.shipPlacement(ship) ? -1 : p, -1, -1);
+	}
+
+	@Override
+	public String name() {
+		return "local";
+	}
+ }
@@ -0,0 +1,161 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ *  Heuristic Algorithms
+ *  ParallelSolver.java
+ *  Runs K independent annealing chains on one puzzle, each a Solver with its own seed, on a ForkJoinPool.
+ *	The maxSolutions budget is split between the chains and the chain with the lowest score wins.
+ *	As soon as any chain reaches a SCORE of 0 every other chain is told to stop.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *  
+ **/
+
+
+ public class ParallelSolver {
+	
+	//the puzzle being solved
+	private final Puzzle puzzle;
+	//how many chains to run at once
+	private final int threads;
+	//gives each chain its own seed
+	private final SplittableRandom seeds;
+	//the annealing schedule every chain follows
+	private AnnealingSchedule schedule = AnnealingSchedule.CLASSIC;
+	//the wall-clock time every chain may take, and the steps shared between them, 0 for no limit
+	private long timeLimitNanos = 0;
+	private long maxIterations = 0;
+	//told every time any chain beats the best board reported so far, or null
+	private ProgressListener listener;
+	//the name of the strategy every chain searches with
+	private String strategy = "annealing";
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//create a parallel solver running the given number of chains with unseeded random number generators
+	public ParallelSolver(Puzzle puzzle, int threads) {
+		this(puzzle, threads, new SplittableRandom());
+	}
+	
+	//create a parallel solver whose chains' seeds are all derived from the given seed
+	public ParallelSolver(Puzzle puzzle, int threads, long seed) {
+		this(puzzle, threads, new SplittableRandom(seed));
+	}
+	
+	private ParallelSolver(Puzzle puzzle, int threads, SplittableRandom seeds) {
+		if(threads < 1) {
+			throw new IllegalArgumentException("Number of threads must be at least 1");
+		}
+		this.puzzle = puzzle;
+		this.threads = threads;
+		this.seeds = seeds;
+	}
+	
+	//use a different annealing schedule for every chain, this must be called before solve
+	public void setSchedule(AnnealingSchedule schedule) {
+		this.schedule = schedule;
+	}
+	
+	//search every chain with the named strategy (see SearchStrategy.parse), this must be called before solve
+	public void setStrategy(String strategy) {
+		//check the name now rather than when the chains start
+		SearchStrategy.parse(strategy);
+		this.strategy = strategy;
+	}
+	
+	//tell a listener every time a chain finds a board better than any chain before it, null for none,
+	//it is only ever called by one chain at a time
+	public void setProgressListener(ProgressListener listener) {
+		this.listener = listener;
+	}
+	
+	//stop every chain once it has run for this many nanoseconds, 0 for no limit
+	public void setTimeLimit(long nanos) {
+		if(nanos < 0) {
+			throw new IllegalArgumentException("Time limit cannot be negative");
+		}
+		this.timeLimitNanos = nanos;
+	}
+	
+	//share this many steps between the chains, 0 for no limit
+	public void setMaxIterations(long maxIterations) {
+		if(maxIterations < 0) {
+			throw new IllegalArgumentException("Maximum iterations cannot be negative");
+		}
+		this.maxIterations = maxIterations;
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//runs the chains, sharing maxSolutions between them, and returns the solver of the chain with the best board
+	public Solver solve(int maxSolutions) throws InterruptedException {
+		
+		//set by the first chain to reach a perfect solution
+		AtomicBoolean stop = new AtomicBoolean();
+		//the chains each report their own improvements, so pass on only those that beat every chain so far
+		ProgressListener shared = listener == null ? null : ProgressListener.bestOnly(listener);
+		//with no solutions to share no chain is started, and the initial board is all there is, as with one Solver
+		if(maxSolutions < 1) {
+			Solver solver = chain(shared);
+			solver.solve(maxSolutions);
+			return solver;
+		}
+		//one chain per thread, but no more chains than there are solutions (or steps) to share, so that every
+		//chain gets at least one without the run taking more than it was given
+		int K = Math.min(threads, maxSolutions);
+		if(maxIterations > 0) {
+			K = (int) Math.min(K, maxIterations);
+		}
+		//the first (maxSolutions % K) chains get one extra solution
+		List<Callable<Solver>> chains = new ArrayList<Callable<Solver>>();
+		for(int i = 0; i < K; i++) {
+			int budget = maxSolutions / K + (i < maxSolutions % K ? 1 : 0);
+			Solver solver = chain(shared);
+			//the step limit is split the same way as the solutions
+			if(maxIterations > 0) {
+				solver.setMaxIterations(maxIterations / K + (i < maxIterations % K ? 1 : 0));
+			}
+			chains.add(() -> {
+				solver.solve(budget, stop);
+				return solver;
+			});
+		}
+		
+		ForkJoinPool pool = new ForkJoinPool(K);
+		try {
+			//run every chain and keep the one with the lowest score
+			Solver best = null;
+			for(Future<Solver> chain : pool.invokeAll(chains)) {
+				Solver solver = chain.get();
+				if(best == null || solver.getScore() < best.getScore()) {
+					best = solver;
+				}
+			}
+			return best;
+		}
+		catch (ExecutionException ex) {
+			throw new IllegalStateException("Annealing chain failed", ex.getCause());
+		}
+		finally {
+			pool.shutdownNow();
+		}
+	}
+	
+	//a solver for one chain, with its own seed and the settings every chain shares
+	private Solver chain(ProgressListener shared) {
+		
+		Solver solver = new Solver(puzzle, seeds.nextLong());
+		solver.setSchedule(schedule);
+		solver.setTimeLimit(timeLimitNanos);
+		solver.setProgressListener(shared);
+		solver.setStrategy(SearchStrategy.parse(strategy));
+		return solver;
+	}
+ }
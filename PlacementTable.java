@@ -0,0 +1,304 @@
+/**
+ *  Heuristic Algorithms
+ *  PlacementTable.java
+ *  Every legal place a ship of one length can go, worked out once when the puzzle is loaded.
+ *	A placement is a start cell and a direction. Columns whose xHits, or rows whose yHits, are smaller than
+ *	the ship are pruned, as are placements that cross a row or column with no hits at all.
+ *	When a Presolve is given, placements that cover a cell it fixed as water, have a cell it fixed as ship
+ *	in their halo, or put the wrong part of the ship on a hint cell, are pruned too. Each entry stores
+ *	the cell the ship starts on. The cells the ship covers, and its halo (those cells plus the ring of water 
+ *	around them, clipped to the board), are rectangles worked out from the start when they are needed, so a
+ *	placement takes one int and a huge sparse board's tables stay small.
+ *	Entries are ordered the way the old scan walked the board: down each column in turn, then along each row,
+ *	so the next position to try is always the next index round the table. The vertical entries come first,
+ *	so whether a placement is vertical is told by its index alone, and a table that nothing was pruned from
+ *	stores nothing at all, working the start out from the index.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *  
+ **/
+
+
+ final class PlacementTable {
+	
+	//the length of ship these placements are for, and the length of the board
+	private final int length;
+	private final int N;
+	//how many placements there are
+	private final int size;
+	//the start cell of each placement, or null when every placement on the board is in the table
+	private final int[] start;
+	//the index of the first horizontal placement, and how many vertical placements there are
+	private final int firstHorizontal;
+	private final int verticals;
+	//how many places a ship of this length can start down a column or along a row
+	private final int runs;
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//builds a table for every distinct ship length in the fleet, indexed by length
+	public static PlacementTable[] build(int[] ships, int[] xHits, int[] yHits) {
+		return build(ships, xHits, yHits, null);
+	}
+	
+	//the same, also pruning on the cells a presolve fixed, or on none if it is null
+	public static PlacementTable[] build(int[] ships, int[] xHits, int[] yHits, Presolve fixed) {
+		
+		int longest = 0;
+		for(int i = 0; i < ships.length; i++) {
+			longest = Math.max(longest, ships[i]);
+		}
+		PlacementTable[] tables = new PlacementTable[longest + 1];
+		for(int i = 0; i < ships.length; i++) {
+			if(tables[ships[i]] == null) {
+				tables[ships[i]] = new PlacementTable(ships[i], xHits, yHits, fixed);
+			}
+		}
+		return tables;
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	private PlacementTable(int length, int[] xHits, int[] yHits, Presolve fixed) {
+		
+		this.length = length;
+		this.N = xHits.length;
+		if(length < 1 || length > N) {
+			throw new IllegalArgumentException("Ship of length " + length + " does not fit on the board");
+		}
+		this.runs = N - length + 1;
+		//a ship of length one looks the same both ways round, so it only needs the vertical set
+		int everywhere = N * runs * (length > 1 ? 2 : 1);
+		//when every line has room for the ship and there is no presolve, nothing can be pruned
+		if(fixed == null && least(xHits) >= length && least(yHits) >= length) {
+			size = everywhere;
+			start = null;
+			verticals = N * runs;
+			firstHorizontal = verticals < size ? verticals : 0;
+			return;
+		}
+		//count the placements the hits allow, if they allow none fall back to every position on the board
+		boolean prune = true;
+		int count = countPlacements(length, xHits, yHits, fixed, true);
+		if(count == 0) {
+			prune = false;
+			count = everywhere;
+		}
+		size = count;
+		start = prune ? new int[count] : null;
+		
+		//fill in the start of every placement, columns first then rows
+		int i = 0;
+		for(int col = 0; col < N; col++) {
+			if(prune && xHits[col] < length) {
+				continue;
+			}
+			for(int row = 0; row + length <= N; row++) {
+				if(allowed(length, xHits, yHits, fixed, row, col, true, prune)) {
+					if(prune) {
+						start[i] = row * N + col;
+					}
+					i++;
+				}
+			}
+		}
+		int horizontalFrom = i;
+		if(length > 1) {
+			for(int row = 0; row < N; row++) {
+				if(prune && yHits[row] < length) {
+					continue;
+				}
+				for(int col = 0; col + length <= N; col++) {
+					if(allowed(length, xHits, yHits, fixed, row, col, false, prune)) {
+						if(prune) {
+							start[i] = row * N + col;
+						}
+						i++;
+					}
+				}
+			}
+		}
+		firstHorizontal = horizontalFrom < count ? horizontalFrom : 0;
+		verticals = horizontalFrom;
+	}
+	
+	//the smallest of the hits
+	private static int least(int[] hits) {
+		int least = Integer.MAX_VALUE;
+		for(int i = 0; i < hits.length; i++) {
+			least = Math.min(least, hits[i]);
+		}
+		return least;
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//how many placements of a ship of this length there are, with or without pruning on the hits
+	private static int countPlacements(int length, int[] xHits, int[] yHits, Presolve fixed, boolean prune) {
+		
+		int N = xHits.length;
+		int count = 0;
+		for(int a = 0; a < N; a++) {
+			//a line without room for the ship has no placements along it, which on a huge sparse board is most of them
+			if(prune && xHits[a] < length && (length == 1 || yHits[a] < length)) {
+				continue;
+			}
+			for(int b = 0; b + length <= N; b++) {
+				//down column a starting at row b
+				if(allowed(length, xHits, yHits, fixed, b, a, true, prune)) {
+					count++;
+				}
+				//along row a starting at column b
+				if(length > 1 && allowed(length, xHits, yHits, fixed, a, b, false, prune)) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+	
+	//can a ship of this length start at row, col in this direction given the hits and the fixed cells
+	private static boolean allowed(int length, int[] xHits, int[] yHits, Presolve fixed, int row, int col, boolean vert, 
+			boolean prune) {
+		
+		if(!prune) {
+			return true;
+		}
+		if(vert) {
+			//the column must have room for the whole ship and every row it crosses must have a hit
+			if(xHits[col] < length) {
+				return false;
+			}
+			for(int k = row; k < row + length; k++) {
+				if(yHits[k] == 0) {
+					return false;
+				}
+			}
+		}
+		else {
+			//the row must have room for the whole ship and every column it crosses must have a hit
+			if(yHits[row] < length) {
+				return false;
+			}
+			for(int k = col; k < col + length; k++) {
+				if(xHits[k] == 0) {
+					return false;
+				}
+			}
+		}
+		return fixed == null || fitsFixed(fixed, xHits.length, length, row, col, vert);
+	}
+	
+	//does the placement keep off the fixed water, with no fixed ship cell in its halo that is not one of its own,
+	//and agree with the hints on its cells
+	private static boolean fitsFixed(Presolve fixed, int N, int length, int row, int col, boolean vert) {
+		
+		int lastRow = vert ? row + length - 1 : row;
+		int lastCol = vert ? col : col + length - 1;
+		for(int r = Math.max(row - 1, 0); r <= Math.min(lastRow + 1, N - 1); r++) {
+			for(int c = Math.max(col - 1, 0); c <= Math.min(lastCol + 1, N - 1); c++) {
+				boolean own = r >= row && r <= lastRow && c >= col && c <= lastCol;
+				if(own ? fixed.isWater(r, c) : fixed.isShip(r, c)) {
+					return false;
+				}
+				//a hint on one of its own cells must name the part of the ship that lands there
+				if(own && !fixed.fitsHint(r, c, r - row + c - col, length, vert)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	public int size() {
+		return size;
+	}
+	
+	public int length() {
+		return length;
+	}
+	
+	public int start(int p) {
+		if(start != null) {
+			return start[p];
+		}
+		//down column p / runs, or along row (p - verticals) / runs
+		return p < verticals ? (p % runs) * N + p / runs : ((p - verticals) / runs) * N + (p - verticals) % runs;
+	}
+	
+	public int end(int p) {
+		return start(p) + (length - 1) * (isVertical(p) ? N : 1);
+	}
+	
+	public boolean isVertical(int p) {
+		return p < verticals;
+	}
+	
+	//the index of the first horizontal placement, or 0 if there are none
+	public int firstHorizontal() {
+		return firstHorizontal;
+	}
+	
+	//the placement that starts at this cell and goes this way, or -1 if it was pruned or runs off the board.
+	//The vertical placements are in order of column then row and the horizontal ones in order of start cell,
+	//so each half is searched by halves
+	public int indexOf(int cell, boolean vert) {
+		
+		if(cell < 0 || cell >= N * N) {
+			return -1;
+		}
+		//a ship of length one is only held as vertical
+		vert |= length == 1;
+		int lo = vert ? 0 : verticals;
+		int hi = vert ? verticals - 1 : size - 1;
+		int key = vert ? (cell % N) * N + cell / N : cell;
+		while(lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			int at = vert ? (start(mid) % N) * N + start(mid) / N : start(mid);
+			if(at < key) {
+				lo = mid + 1;
+			}
+			else if(at > key) {
+				hi = mid - 1;
+			}
+			else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//does placement p touch a ship already on the board, counting its halo unless only the cells are wanted
+	public boolean collides(Board board, int p, boolean cellsOnly) {
+		
+		int first = start(p);
+		int row = first / N;
+		int col = first % N;
+		int lastRow = isVertical(p) ? row + length - 1 : row;
+		int lastCol = isVertical(p) ? col : col + length - 1;
+		if(cellsOnly) {
+			return board.anyInRect(row, lastRow, col, lastCol);
+		}
+		//the halo is the rectangle one cell bigger than the ship on every side, clipped to the board
+		return board.anyInRect(Math.max(row - 1, 0), Math.min(lastRow + 1, N - 1), Math.max(col - 1, 0), 
+			Math.min(lastCol + 1, N - 1));
+	}
+	
+	//puts a ship at placement p on the board
+	public void place(Board board, int p) {
+		int first = start(p);
+		int last = end(p);
+		board.setRect(first / N, last / N, first % N, last % N);
+	}
+	
+	//takes the ship at placement p off the board
+	public void remove(Board board, int p) {
+		int first = start(p);
+		int last = end(p);
+		board.clearRect(first / N, last / N, first % N, last % N);
+	}
+ }
@@ -0,0 +1,340 @@
+/**
+ *  Heuristic Algorithms
+ *  Presolve.java
+ *  Works out the cells the hits decide on their own, before any search, by repeating three rules until none of
+ *	them changes anything:
+ *	 - a row or column that already has all its hits in ship cells is water everywhere else
+ *	   (so a row or column with no hits is all water)
+ *	 - a row or column whose hits equal the cells in it that are not water is ship in all of them
+ *	 - the four cells diagonal to a ship cell are water, as ships may not touch
+ *	A puzzle's Hint cells are fixed before the rules run, along with what they say about their neighbours: the cell
+ *	past the end of a ship is water and the cell behind it is ship, and a one-cell ship has water all round.
+ *	The PlacementTables then leave out every placement that covers a water cell or has a ship cell in its halo,
+ *	as that ship cell would belong to a different ship touching it, and every placement that covers a hint cell
+ *	with the wrong part of the ship (a ship lying across over a ^, or a two-cell ship over an m). If the rules run
+ *	into a contradiction
+ *	(a row needing more ship cells than it has room for, say) the puzzle has no solution and nothing is fixed,
+ *	so the search still finds the best board it can.
+ *	As the first rule makes every row and column without hits water outright, only the cells where a row and a
+ *	column that both have hits cross are held, in a grid of those rows and columns alone, so a huge board with
+ *	few ships costs no more than its live lines.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ final class Presolve {
+
+	//what is known about a cell
+	private static final byte UNKNOWN = 0, WATER = 1, SHIP = 2;
+	private static final Hint.Kind[] KINDS = Hint.Kind.values();
+
+	//the length of the board
+	private final int N;
+	//the position of each row and column among those with hits, -1 for a line with none
+	private final int[] rowIndex;
+	private final int[] colIndex;
+	//how many rows and columns have hits
+	private final int R, C;
+	//what is known about each cell of the live rows and columns, R by C
+	private final byte[] cells;
+	//one more than the ordinal of the hint given for each live cell, or null if there are none
+	private final byte[] kinds;
+	//did the rules show the puzzle cannot be solved
+	private final boolean contradiction;
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//runs the rules on a puzzle's hits, xHits being the hits of each column and yHits of each row
+	public Presolve(int[] xHits, int[] yHits) {
+		this(xHits, yHits, new Hint[0]);
+	}
+
+	//runs the rules on a puzzle's hits starting from the cells its hints give away
+	public Presolve(int[] xHits, int[] yHits, Hint[] hints) {
+
+		this.N = xHits.length;
+		this.rowIndex = live(yHits);
+		this.colIndex = live(xHits);
+		this.R = count(yHits);
+		this.C = count(xHits);
+		this.cells = new byte[R * C];
+		//the live hits, in the order of the live rows and columns
+		int[] rowHits = new int[R];
+		int[] colHits = new int[C];
+		for(int line = 0; line < N; line++) {
+			if(rowIndex[line] >= 0) {
+				rowHits[rowIndex[line]] = yHits[line];
+			}
+			if(colIndex[line] >= 0) {
+				colHits[colIndex[line]] = xHits[line];
+			}
+		}
+		boolean solvable = seed(hints) && deduce(colHits, rowHits);
+		this.contradiction = !solvable;
+		this.kinds = solvable && hints.length > 0 ? new byte[R * C] : null;
+		if(kinds != null) {
+			for(Hint hint : hints) {
+				int cell = cell(hint.getRow(), hint.getCol());
+				if(cell >= 0) {
+					kinds[cell] = (byte) (hint.getKind().ordinal() + 1);
+				}
+			}
+		}
+	}
+	
+	//the position of each line among those with hits, -1 for a line with none
+	private static int[] live(int[] hits) {
+		int[] index = new int[hits.length];
+		int next = 0;
+		for(int line = 0; line < hits.length; line++) {
+			index[line] = hits[line] > 0 ? next++ : -1;
+		}
+		return index;
+	}
+	
+	//how many lines have hits
+	private static int count(int[] hits) {
+		int count = 0;
+		for(int line = 0; line < hits.length; line++) {
+			if(hits[line] > 0) {
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	//the live cell at row, col, or -1 if it is off the board or on a line with no hits
+	private int cell(int row, int col) {
+		if(row < 0 || row >= N || col < 0 || col >= N || rowIndex[row] < 0 || colIndex[col] < 0) {
+			return -1;
+		}
+		return rowIndex[row] * C + colIndex[col];
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//fixes the hint cells and the neighbours they decide, false if two hints disagree
+	private boolean seed(Hint[] hints) {
+
+		for(Hint hint : hints) {
+			int row = hint.getRow();
+			int col = hint.getCol();
+			boolean fits = fix(row, col, hint.getKind().isShip() ? SHIP : WATER);
+			switch(hint.getKind()) {
+				case SUB:
+					fits &= fix(row - 1, col, WATER) & fix(row + 1, col, WATER)
+						& fix(row, col - 1, WATER) & fix(row, col + 1, WATER);
+					break;
+				case LEFT:
+					fits &= fix(row, col - 1, WATER) & fix(row, col + 1, SHIP)
+						& fix(row - 1, col, WATER) & fix(row + 1, col, WATER);
+					break;
+				case RIGHT:
+					fits &= fix(row, col + 1, WATER) & fix(row, col - 1, SHIP)
+						& fix(row - 1, col, WATER) & fix(row + 1, col, WATER);
+					break;
+				case TOP:
+					fits &= fix(row - 1, col, WATER) & fix(row + 1, col, SHIP)
+						& fix(row, col - 1, WATER) & fix(row, col + 1, WATER);
+					break;
+				case BOTTOM:
+					fits &= fix(row + 1, col, WATER) & fix(row - 1, col, SHIP)
+						& fix(row, col - 1, WATER) & fix(row, col + 1, WATER);
+					break;
+				default:
+					break;
+			}
+			if(!fits) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	//fixes a cell as water or ship, false if it was already fixed the other way or a ship cell is off the board
+	//or on a line with no hits, which is all water
+	private boolean fix(int row, int col, byte value) {
+
+		int cell = cell(row, col);
+		if(cell < 0) {
+			return value == WATER;
+		}
+		if(cells[cell] != UNKNOWN && cells[cell] != value) {
+			return false;
+		}
+		cells[cell] = value;
+		return true;
+	}
+
+	//applies the rules to the live rows and columns, whose hits are colHits and rowHits, until nothing changes,
+	//false if they contradict each other
+	private boolean deduce(int[] colHits, int[] rowHits) {
+
+		//the row and column of the board each live row and column is
+		int[] rows = new int[R];
+		int[] cols = new int[C];
+		for(int line = 0; line < N; line++) {
+			if(rowIndex[line] >= 0) {
+				rows[rowIndex[line]] = line;
+			}
+			if(colIndex[line] >= 0) {
+				cols[colIndex[line]] = line;
+			}
+		}
+		boolean changed = true;
+		while(changed) {
+			changed = false;
+			for(int r = 0; r < R; r++) {
+				int result = lineRule(rowHits[r], r * C, 1, C);
+				if(result < 0) {
+					return false;
+				}
+				changed |= result > 0;
+			}
+			for(int c = 0; c < C; c++) {
+				int result = lineRule(colHits[c], c, C, R);
+				if(result < 0) {
+					return false;
+				}
+				changed |= result > 0;
+			}
+			//water round the corners of every ship cell, the corners being those of the whole board
+			for(int r = 0; r < R; r++) {
+				for(int c = 0; c < C; c++) {
+					if(cells[r * C + c] != SHIP) {
+						continue;
+					}
+					for(int dr = -1; dr <= 1; dr += 2) {
+						for(int dc = -1; dc <= 1; dc += 2) {
+							int corner = cell(rows[r] + dr, cols[c] + dc);
+							if(corner < 0) {
+								continue;
+							}
+							if(cells[corner] == SHIP) {
+								return false;
+							}
+							if(cells[corner] == UNKNOWN) {
+								cells[corner] = WATER;
+								changed = true;
+							}
+						}
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	//applies the line rules to the length live cells from first, step apart, that need hits ship cells. The
+	//line's other cells are on lines with no hits, so they are water and make no difference.
+	//Returns 1 if it fixed a cell, 0 if not and -1 if the line cannot be filled
+	private int lineRule(int hits, int first, int step, int length) {
+
+		int ships = 0;
+		int unknown = 0;
+		for(int i = 0, cell = first; i < length; i++, cell += step) {
+			if(cells[cell] == SHIP) {
+				ships++;
+			}
+			else if(cells[cell] == UNKNOWN) {
+				unknown++;
+			}
+		}
+		if(ships > hits || ships + unknown < hits) {
+			return -1;
+		}
+		if(unknown == 0) {
+			return 0;
+		}
+		//every hit is already a ship cell, or every cell left is needed for one
+		byte fill;
+		if(ships == hits) {
+			fill = WATER;
+		}
+		else if(ships + unknown == hits) {
+			fill = SHIP;
+		}
+		else {
+			return 0;
+		}
+		for(int i = 0, cell = first; i < length; i++, cell += step) {
+			if(cells[cell] == UNKNOWN) {
+				cells[cell] = fill;
+			}
+		}
+		return 1;
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//is the cell fixed as water
+	public boolean isWater(int row, int col) {
+		if(contradiction) {
+			return false;
+		}
+		int cell = cell(row, col);
+		return cell < 0 || cells[cell] == WATER;
+	}
+
+	//is the cell fixed as ship
+	public boolean isShip(int row, int col) {
+		if(contradiction) {
+			return false;
+		}
+		int cell = cell(row, col);
+		return cell >= 0 && cells[cell] == SHIP;
+	}
+
+	//can the cell be the index'th cell of a ship of this length and direction, given the hint on it.
+	//A one-cell ship counts as vertical, the way the PlacementTables hold it
+	public boolean fitsHint(int row, int col, int index, int length, boolean vert) {
+
+		int cell = cell(row, col);
+		if(kinds == null || cell < 0 || kinds[cell] == 0) {
+			return true;
+		}
+		Hint.Kind kind = KINDS[kinds[cell] - 1];
+		boolean first = index == 0;
+		boolean last = index == length - 1;
+		switch(kind) {
+			case WATER:
+				return false;
+			case SUB:
+				return length == 1;
+			case MIDDLE:
+				return !first && !last;
+			case LEFT:
+				return !vert && first;
+			case RIGHT:
+				return !vert && last;
+			case TOP:
+				return vert && length > 1 && first;
+			case BOTTOM:
+				return vert && length > 1 && last;
+			default:
+				return true;
+		}
+	}
+
+	//did the rules show that the puzzle has no solution
+	public boolean isContradiction() {
+		return contradiction;
+	}
+
+	//how many cells the rules fixed, water and ship together
+	public int fixedCells() {
+		if(contradiction) {
+			return 0;
+		}
+		//every cell off the live rows and columns is water
+		int count = N * N - R * C;
+		for(int cell = 0; cell < cells.length; cell++) {
+			if(cells[cell] != UNKNOWN) {
+				count++;
+			}
+		}
+		return count;
+	}
+ }
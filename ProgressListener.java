@@ -0,0 +1,38 @@
+/**
+ *  Heuristic Algorithms
+ *  ProgressListener.java
+ *  Told every time a solve finds a better board than any before it, starting with the initial solution,
+ *	so a caller can show a good-enough answer straight away while the search carries on refining it.
+ *	It is called on the thread doing the search, in the middle of the search, so it should be quick:
+ *	hand the board off rather than doing slow work with it.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ @FunctionalInterface
+ public interface ProgressListener {
+
+	//the best score has improved to score on the given step of the search, elapsedNanos after the solve started,
+	//board is a copy of the new best board that the listener may keep
+	void improved(int score, long iteration, long elapsedNanos, Board board);
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//a listener for several searches reporting at once, or one after another, that only passes on boards better
+	//than any passed on before, one at a time
+	static ProgressListener bestOnly(ProgressListener listener) {
+		return new ProgressListener() {
+			private int best = Integer.MAX_VALUE;
+			
+			@Override
+			public synchronized void improved(int score, long iteration, long elapsedNanos, Board board) {
+				if(score < best) {
+					best = score;
+					listener.improved(score, iteration, elapsedNanos, board);
+				}
+			}
+		};
+	}
+ }
@@ -0,0 +1,209 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+
+/**
+ *  Heuristic Algorithms
+ *  Puzzle.java
+ *  An immutable Battleship Solitaire puzzle: the lengths of the K ships, the number of ship-occupied cells
+ *	in each of the N columns (xHits) and in each of the N rows (yHits), and any Hint cells it gives away.
+ *	Puzzles can be shared freely between threads, every getter hands back a copy.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *  
+ **/
+
+
+ public final class Puzzle {
+	
+	//three int arrays to store the ships, xHits and yHits
+	private final int[] ships;
+	private final int[] xHits;
+	private final int[] yHits;
+	//the cells given away, none for most puzzles
+	private final Hint[] hints;
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//create a puzzle from its ships, xHits and yHits
+	public Puzzle(int[] ships, int[] xHits, int[] yHits) {
+		this(ships, xHits, yHits, new Hint[0]);
+	}
+	
+	//create a puzzle that also gives away some cells
+	public Puzzle(int[] ships, int[] xHits, int[] yHits, Hint[] hints) {
+		//check we have a NxN grid
+		if(xHits.length != yHits.length) {
+			throw new IllegalArgumentException("Grid is not NxN");
+		}
+		//check every hint is on the board and no cell is given away twice
+		int N = xHits.length;
+		Board seen = Board.create(N, hints.length);
+		for(Hint hint : hints) {
+			if(hint.getRow() >= N || hint.getCol() >= N) {
+				throw new IllegalArgumentException("Hint cell " + hint + " is off the board");
+			}
+			if(seen.get(hint.getRow(), hint.getCol())) {
+				throw new IllegalArgumentException("Hint cell " + hint.getRow() + "," + hint.getCol() + " is given twice");
+			}
+			seen.set(hint.getRow() * N + hint.getCol());
+		}
+		this.ships = ships.clone();
+		this.xHits = xHits.clone();
+		this.yHits = yHits.clone();
+		this.hints = hints.clone();
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	// Reads a puzzle from a text file of three lines: the ships, the xHits and the yHits,
+	// and an optional fourth line of hints written row,col,kind.
+	// The numbers may be separated by any spaces or tabs, and blank lines are skipped
+	public static Puzzle read(String filename) throws IOException {
+		
+		try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
+			Puzzle puzzle = read(br);
+			String s = br.readLine();
+			while(s != null && s.isBlank()) {
+				s = br.readLine();
+			}
+			return s == null ? puzzle : puzzle.withHints(readHints(s));
+		}
+	}
+	
+	//reads a puzzle from the next three lines of a reader, leaving the reader open
+	public static Puzzle read(BufferedReader br) throws IOException {
+		
+		//read in the first line, the ships
+		int[] ships = readLine(br, "No ships in input file");
+		//read in the second line, the xHits
+		int[] xHits = readLine(br, "No xHits in input file");
+		//read in the third line, the yHits
+		int[] yHits = readLine(br, "No yHits in input file");
+		return new Puzzle(ships, xHits, yHits);
+	}
+	
+	//reads the next line of integers that is not blank, separated by any run of spaces or tabs
+	private static int[] readLine(BufferedReader br, String missing) throws IOException {
+		
+		String s = br.readLine();
+		while(s != null && s.isBlank()) {
+			s = br.readLine();
+		}
+		if(s == null) {
+			throw new IOException(missing);
+		}
+		//count the numbers first so the array is made once
+		int count = 0;
+		for(int i = 0; i < s.length(); i++) {
+			if(!Character.isWhitespace(s.charAt(i)) && (i == 0 || Character.isWhitespace(s.charAt(i - 1)))) {
+				count++;
+			}
+		}
+		int[] values = new int[count];
+		int v = 0;
+		for(int i = 0; i < s.length(); ) {
+			if(Character.isWhitespace(s.charAt(i))) {
+				i++;
+				continue;
+			}
+			int end = i;
+			while(end < s.length() && !Character.isWhitespace(s.charAt(end))) {
+				end++;
+			}
+			try {
+				values[v++] = Integer.parseInt(s, i, end, 10);
+			}
+			catch (NumberFormatException ex) {
+				throw new IOException("Not a whole number in input file: " + s.substring(i, end));
+			}
+			i = end;
+		}
+		return values;
+	}
+	
+	//does a line of input list hints rather than numbers
+	static boolean isHintLine(String s) {
+		return s.indexOf(',') >= 0;
+	}
+	
+	//reads a line of hints separated by any run of spaces or tabs
+	static Hint[] readHints(String s) throws IOException {
+		
+		String[] tokens = s.trim().split("\\s+");
+		Hint[] hints = new Hint[tokens.length];
+		for(int i = 0; i < tokens.length; i++) {
+			try {
+				hints[i] = Hint.parse(tokens[i]);
+			}
+			catch (IllegalArgumentException ex) {
+				throw new IOException("Not a hint in input file: " + tokens[i]);
+			}
+		}
+		return hints;
+	}
+	
+	//the same puzzle giving away these cells instead
+	public Puzzle withHints(Hint[] hints) {
+		return new Puzzle(ships, xHits, yHits, hints);
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//the length of the board
+	public int size() {
+		return xHits.length;
+	}
+	
+	public int[] getShips() {
+		return ships.clone();
+	}
+	
+	public int[] getXHits() {
+		return xHits.clone();
+	}
+	
+	public int[] getYHits() {
+		return yHits.clone();
+	}
+	
+	public Hint[] getHints() {
+		return hints.clone();
+	}
+	
+	//does the puzzle give away any cells
+	public boolean hasHints() {
+		return hints.length > 0;
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//the score of a board for this puzzle: how far each row and column is from its hits, added up,
+	//and Hint.PENALTY for each hint the board goes against
+	public int score(Board board) {
+		
+		int N = size();
+		int[] rowCounts = new int[N];
+		int[] colCounts = new int[N];
+		board.rowCounts(rowCounts);
+		board.colCounts(colCounts);
+		int total = 0;
+		for(int i = 0; i < N; i++) {
+			total += Math.abs(yHits[i] - rowCounts[i]) + Math.abs(xHits[i] - colCounts[i]);
+		}
+		return total + Hint.PENALTY * hintViolations(board);
+	}
+	
+	//how many hints a board goes against: water hints with a ship on them and ship hints left empty.
+	//Which part of a ship a hint names is kept by the PlacementTables, so only the cell itself is checked here
+	public int hintViolations(Board board) {
+		
+		int violations = 0;
+		for(Hint hint : hints) {
+			if(board.get(hint.getRow(), hint.getCol()) != hint.getKind().isShip()) {
+				violations++;
+			}
+		}
+		return violations;
+	}
+ }
@@ -0,0 +1,462 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ *  Heuristic Algorithms
+ *  PuzzleCorpus.java
+ *  Many puzzles, and optionally their solutions, in one compact binary file, for regression runs over millions of
+ *	puzzles where reading a text file per puzzle would take longer than solving them.
+ *	The file starts with a 16 byte header: the magic number, the format version and the number of puzzles.
+ *	Each puzzle is then one record, every number in it an unsigned varint (7 bits a byte, low bits first,
+ *	the top bit set on every byte but the last):
+ *	 - the length of the rest of the record in bytes, so a reader can skip it
+ *	 - N, K, the K ship lengths, the N xHits and the N yHits
+ *	 - a flag byte: 1 if a solution follows, plus 2 if hints follow
+ *	 - the number of hints and each hint as its cell (row * N + col) times 8 plus its Hint.Kind, if there are any
+ *	 - the solution packed row by row, 8 cells to a byte, low bit first, if there is one
+ *	A Reader maps the file into memory and walks the records in place, decoding each into arrays it reuses,
+ *	and reads solution cells straight out of the mapped file, so walking a corpus copies nothing.
+ *
+ *	Usage: java PuzzleCorpus pack <directory or list file> <corpus>   (a .solution file next to a puzzle is kept)
+ *	       java PuzzleCorpus unpack <corpus> <output directory>
+ *	       java PuzzleCorpus info <corpus>   (counts the puzzles by size and checks every solution)
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ public final class PuzzleCorpus {
+
+	//"BSPC", and the version of the record format
+	private static final int MAGIC = 0x42535043;
+	private static final int VERSION = 1;
+	private static final int HEADER = 16;
+	//the bits of a record's flag byte
+	private static final int HAS_SOLUTION = 1, HAS_HINTS = 2;
+
+	private PuzzleCorpus() {
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//appends puzzles to a new corpus file, the count in the header is filled in by close
+	public static final class Writer implements AutoCloseable {
+
+		private final FileChannel channel;
+		//records waiting to be written, and the record being built
+		private ByteBuffer out = ByteBuffer.allocate(1 << 16);
+		private ByteBuffer record = ByteBuffer.allocate(1 << 10);
+		private long count;
+
+		public Writer(Path file) throws IOException {
+			channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+			//the header, with the count left at 0 until close
+			out.putInt(MAGIC).putInt(VERSION).putLong(0);
+		}
+
+		public void add(Puzzle puzzle) throws IOException {
+			add(puzzle, null);
+		}
+
+		//adds a puzzle and its solution, which may be null
+		public void add(Puzzle puzzle, Board solution) throws IOException {
+
+			int N = puzzle.size();
+			if(solution != null && solution.size() != N) {
+				throw new IllegalArgumentException("Solution is " + solution.size() + "x" + solution.size()
+					+ " but the puzzle is " + N + "x" + N);
+			}
+			int[] ships = puzzle.getShips();
+			Hint[] hints = puzzle.getHints();
+			//room for every number at its longest, and the board
+			int most = 5 * (3 + ships.length + 2 * N + hints.length) + 1 + (N * N + 7) / 8;
+			if(record.capacity() < most) {
+				record = ByteBuffer.allocate(most);
+			}
+			record.clear();
+			putVarint(record, N);
+			putVarint(record, ships.length);
+			putAll(record, ships);
+			putAll(record, puzzle.getXHits());
+			putAll(record, puzzle.getYHits());
+			record.put((byte) ((solution != null ? HAS_SOLUTION : 0) | (hints.length > 0 ? HAS_HINTS : 0)));
+			if(hints.length > 0) {
+				putVarint(record, hints.length);
+				for(Hint hint : hints) {
+					putVarint(record, (hint.getRow() * N + hint.getCol()) * 8 + hint.getKind().ordinal());
+				}
+			}
+			if(solution != null) {
+				byte packed = 0;
+				for(int i = 0; i < N * N; i++) {
+					if(solution.get(i)) {
+						packed |= 1 << (i & 7);
+					}
+					if((i & 7) == 7 || i == N * N - 1) {
+						record.put(packed);
+						packed = 0;
+					}
+				}
+			}
+			record.flip();
+			//the length, then the record
+			if(out.remaining() < record.remaining() + 5) {
+				flush();
+				if(out.capacity() < record.remaining() + 5) {
+					out = ByteBuffer.allocate(record.remaining() + 5);
+				}
+			}
+			putVarint(out, record.remaining());
+			out.put(record);
+			count++;
+		}
+
+		private void flush() throws IOException {
+			out.flip();
+			while(out.hasRemaining()) {
+				channel.write(out);
+			}
+			out.clear();
+		}
+
+		//writes what is left and the number of puzzles
+		@Override
+		public void close() throws IOException {
+			try {
+				flush();
+				ByteBuffer total = ByteBuffer.allocate(8).putLong(0, count);
+				channel.write(total, 8);
+			}
+			finally {
+				channel.close();
+			}
+		}
+
+		private static void putAll(ByteBuffer buffer, int[] values) {
+			for(int i = 0; i < values.length; i++) {
+				putVarint(buffer, values[i]);
+			}
+		}
+
+		private static void putVarint(ByteBuffer buffer, int value) {
+			if(value < 0) {
+				throw new IllegalArgumentException("Cannot store a negative number: " + value);
+			}
+			while((value & ~0x7F) != 0) {
+				buffer.put((byte) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			buffer.put((byte) value);
+		}
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//walks the records of a corpus file mapped into memory. After next() returns true the accessors describe
+	//the current record; the arrays behind them are reused, so puzzle() and solution() are the way to keep one
+	public static final class Reader {
+
+		private final MappedByteBuffer buffer;
+		private final long count;
+		//the index of the current record and where the next one starts
+		private long index = -1;
+		private int next = HEADER;
+		//the current record: its board length, ships and hits, and where its solution starts, -1 if it has none
+		private int N;
+		private int K;
+		private int[] ships = new int[16];
+		private int[] xHits = new int[16];
+		private int[] yHits = new int[16];
+		//the current record's hints, each cell * 8 + kind
+		private int H;
+		private int[] hints = new int[16];
+		private int solutionAt;
+		//where the last varint read ended
+		private int position;
+
+		private Reader(MappedByteBuffer buffer, long count) {
+			this.buffer = buffer;
+			this.count = count;
+		}
+
+		//maps a corpus file, which must be under 2 GB as that is the most one mapping can hold
+		public static Reader open(Path file) throws IOException {
+
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				long size = channel.size();
+				if(size > Integer.MAX_VALUE) {
+					throw new IOException("Corpus is larger than 2 GB, split it into smaller files: " + file);
+				}
+				if(size < HEADER) {
+					throw new IOException("Not a puzzle corpus: " + file);
+				}
+				//the mapping stays valid after the channel is closed
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+				if(buffer.getInt(0) != MAGIC) {
+					throw new IOException("Not a puzzle corpus: " + file);
+				}
+				if(buffer.getInt(4) != VERSION) {
+					throw new IOException("Corpus format version " + buffer.getInt(4) + " is not supported: " + file);
+				}
+				return new Reader(buffer, buffer.getLong(8));
+			}
+		}
+
+		//the number of puzzles in the corpus
+		public long count() {
+			return count;
+		}
+
+		//moves on to the next record, false once there are none left
+		public boolean next() throws IOException {
+
+			if(next >= buffer.limit()) {
+				return false;
+			}
+			int at = next;
+			int length = (int) varint(at);
+			at = position;
+			next = at + length;
+			if(next > buffer.limit()) {
+				throw new IOException("Corpus ends part way through record " + (index + 1));
+			}
+			index++;
+			N = (int) varint(at);
+			K = (int) varint(position);
+			if(ships.length < K) {
+				ships = new int[K];
+			}
+			if(xHits.length < N) {
+				xHits = new int[N];
+				yHits = new int[N];
+			}
+			for(int i = 0; i < K; i++) {
+				ships[i] = (int) varint(position);
+			}
+			for(int i = 0; i < N; i++) {
+				xHits[i] = (int) varint(position);
+			}
+			for(int i = 0; i < N; i++) {
+				yHits[i] = (int) varint(position);
+			}
+			int flags = buffer.get(position);
+			position++;
+			H = 0;
+			if((flags & HAS_HINTS) != 0) {
+				H = (int) varint(position);
+				if(hints.length < H) {
+					hints = new int[H];
+				}
+				for(int i = 0; i < H; i++) {
+					hints[i] = (int) varint(position);
+				}
+			}
+			solutionAt = (flags & HAS_SOLUTION) != 0 ? position : -1;
+			return true;
+		}
+
+		//reads the varint at a position, leaving position just after it
+		private long varint(int at) throws IOException {
+			long value = 0;
+			for(int shift = 0; shift < 35; shift += 7) {
+				byte b = buffer.get(at++);
+				value |= (long) (b & 0x7F) << shift;
+				if(b >= 0) {
+					position = at;
+					return value;
+				}
+			}
+			throw new IOException("Bad number in corpus record " + (index + 1));
+		}
+
+		// -------------------------------------------------------------------------------------------------------------------
+
+		//which record is current, counting from 0
+		public long index() {
+			return index;
+		}
+
+		public int size() {
+			return N;
+		}
+
+		public int shipCount() {
+			return K;
+		}
+
+		public int ship(int i) {
+			return ships[i];
+		}
+
+		public int xHit(int col) {
+			return xHits[col];
+		}
+
+		public int yHit(int row) {
+			return yHits[row];
+		}
+
+		public int hintCount() {
+			return H;
+		}
+
+		public Hint hint(int i) {
+			int cell = hints[i] >>> 3;
+			return new Hint(cell / N, cell % N, Hint.Kind.values()[hints[i] & 7]);
+		}
+
+		public boolean hasSolution() {
+			return solutionAt >= 0;
+		}
+
+		//is there a ship in this cell of the stored solution, read straight from the file
+		public boolean solutionHas(int row, int col) {
+			int cell = row * N + col;
+			return (buffer.get(solutionAt + (cell >>> 3)) & (1 << (cell & 7))) != 0;
+		}
+
+		//the current record as a Puzzle of its own
+		public Puzzle puzzle() {
+			int[] s = new int[K];
+			System.arraycopy(ships, 0, s, 0, K);
+			int[] x = new int[N];
+			int[] y = new int[N];
+			System.arraycopy(xHits, 0, x, 0, N);
+			System.arraycopy(yHits, 0, y, 0, N);
+			Hint[] h = new Hint[H];
+			for(int i = 0; i < H; i++) {
+				h[i] = hint(i);
+			}
+			return new Puzzle(s, x, y, h);
+		}
+
+		//the current record's solution as a board of its own, held as Board.create picks for its ships, or null if it
+		//has none. Only the bytes with ships in them are looked into, so a sparse solution costs a pass over its bytes
+		public Board solution() {
+			if(!hasSolution()) {
+				return null;
+			}
+			int bytes = (N * N + 7) / 8;
+			long cells = 0;
+			for(int i = 0; i < bytes; i++) {
+				cells += Integer.bitCount(buffer.get(solutionAt + i) & 0xff);
+			}
+			Board board = Board.create(N, cells);
+			for(int i = 0; i < bytes; i++) {
+				for(int bits = buffer.get(solutionAt + i) & 0xff; bits != 0; bits &= bits - 1) {
+					board.set(i * 8 + Integer.numberOfTrailingZeros(bits));
+				}
+			}
+			return board;
+		}
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//packs text puzzles, with the .solution files next to them, into a corpus
+	public static long pack(List<Path> files, Path corpus) throws IOException {
+
+		try (Writer writer = new Writer(corpus)) {
+			for(Path file : files) {
+				String name = file.getFileName().toString();
+				Path solution = name.endsWith(".txt")
+					? file.resolveSibling(name.substring(0, name.length() - ".txt".length()) + ".solution") : null;
+				Puzzle puzzle = Puzzle.read(file.toString());
+				writer.add(puzzle, solution != null && Files.exists(solution) ? PuzzleGenerator.readSolution(solution) : null);
+			}
+			return writer.count;
+		}
+	}
+
+	//writes every puzzle of a corpus back out as corpus-i.txt, with corpus-i.solution when it has one
+	public static long unpack(Path corpus, Path dir) throws IOException {
+
+		Files.createDirectories(dir);
+		Reader reader = Reader.open(corpus);
+		int digits = String.valueOf(Math.max(reader.count() - 1, 0)).length();
+		while(reader.next()) {
+			String name = String.format("corpus-%0" + digits + "d", reader.index());
+			PuzzleGenerator.write(dir.resolve(name + ".txt"), reader.puzzle());
+			if(reader.hasSolution()) {
+				PuzzleGenerator.writeSolution(dir.resolve(name + ".solution"), reader.solution());
+			}
+		}
+		return reader.index() + 1;
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	public static void main(String[] args) {
+
+		try {
+			if(args.length < 2 || (!args[0].equals("info") && args.length < 3)) {
+				throw new IllegalArgumentException("Usage: java PuzzleCorpus pack <directory or list file> <corpus>\n"
+					+ "       java PuzzleCorpus unpack <corpus> <output directory>\n"
+					+ "       java PuzzleCorpus info <corpus>");
+			}
+			switch(args[0]) {
+				case "pack":
+					System.out.println("Packed " + pack(BatchRunner.listPuzzles(Paths.get(args[1])), Paths.get(args[2]))
+						+ " puzzles");
+					break;
+				case "unpack":
+					System.out.println("Unpacked " + unpack(Paths.get(args[1]), Paths.get(args[2])) + " puzzles");
+					break;
+				case "info":
+					info(Paths.get(args[1]));
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown command " + args[0]);
+			}
+		}
+		catch (IOException | IllegalArgumentException ex) {
+			System.err.println(ex.getMessage());
+			System.exit(1);
+		}
+	}
+
+	//prints how many puzzles of each size the corpus holds and checks that every stored solution fits its hits
+	private static void info(Path corpus) throws IOException {
+
+		Reader reader = Reader.open(corpus);
+		Map<Integer, Long> sizes = new TreeMap<Integer, Long>();
+		long solutions = 0, wrong = 0;
+		while(reader.next()) {
+			sizes.merge(reader.size(), 1L, Long::sum);
+			if(reader.hasSolution()) {
+				solutions++;
+				//count the solution's cells in place against the hits
+				int N = reader.size();
+				boolean fits = true;
+				for(int line = 0; line < N && fits; line++) {
+					int rowCells = 0, colCells = 0;
+					for(int i = 0; i < N; i++) {
+						rowCells += reader.solutionHas(line, i) ? 1 : 0;
+						colCells += reader.solutionHas(i, line) ? 1 : 0;
+					}
+					fits = rowCells == reader.yHit(line) && colCells == reader.xHit(line);
+				}
+				wrong += fits ? 0 : 1;
+			}
+		}
+		System.out.println(reader.count() + " puzzles, " + solutions + " with solutions"
+			+ (wrong > 0 ? ", " + wrong + " of which do not fit their hits" : ""));
+		for(Map.Entry<Integer, Long> size : sizes.entrySet()) {
+			System.out.println("  " + size.getKey() + "x" + size.getKey() + ": " + size.getValue());
+		}
+		if(reader.index() + 1 != reader.count()) {
+			throw new IOException("Header says " + reader.count() + " puzzles but the file holds " + (reader.index() + 1));
+		}
+	}
+ }
@@ -0,0 +1,373 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ *  Heuristic Algorithms
+ *  PuzzleGenerator.java
+ *  Makes random puzzles of any size: the fleet is placed on an empty N by N board at random positions,
+ *	largest ship first, with no two ships touching, and the xHits and yHits are counted from where they landed.
+ *	The hidden solution is kept so it can be written out next to the puzzle.
+ *	The placements for each ship length are worked out once per generator, so a corpus of many puzzles
+ *	only pays for the random draws. The same seed always gives the same puzzles.
+ *
+ *	An output path ending in .bsc is written as one PuzzleCorpus file instead of a directory of text files.
+ *	With --hints H each puzzle gives away H cells of its solution, picked at random, as Hint cells.
+ *
+ *	Usage: java PuzzleGenerator <N> <count> <output directory or .bsc> [--seed S] [--fleet length:count,...] 
+ *	       [--hints H] [--solutions]
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ public class PuzzleGenerator {
+
+	//random positions tried for a ship before walking the whole table for one that fits
+	private static final int RANDOM_TRIES = 64;
+	//how many times an empty board is tried before the fleet is judged not to fit
+	private static final int RESTARTS = 100;
+
+	//the length of the board and the fleet, longest ship first
+	private final int N;
+	private final int[] fleet;
+	//every position on the board for each ship length, indexed by length
+	private final PlacementTable[] tables;
+	//the board the fleet is placed on and the hits it gives
+	private final Board board;
+	private final int[] xHits;
+	private final int[] yHits;
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//a generator for N by N puzzles with the given fleet of ship lengths
+	public PuzzleGenerator(int N, int[] fleet) {
+
+		if(N < 1) {
+			throw new IllegalArgumentException("Board size must be at least 1");
+		}
+		if(fleet.length == 0) {
+			throw new IllegalArgumentException("Fleet has no ships");
+		}
+		this.N = N;
+		this.fleet = fleet.clone();
+		//longest ship first, the way the puzzle files list them and the way they are easiest to fit
+		Arrays.sort(this.fleet);
+		for(int i = 0, j = this.fleet.length - 1; i < j; i++, j--) {
+			int swap = this.fleet[i];
+			this.fleet[i] = this.fleet[j];
+			this.fleet[j] = swap;
+		}
+		//with every row and column allowed as many hits as it has cells nothing is pruned from the tables
+		int[] full = new int[N];
+		Arrays.fill(full, N);
+		this.tables = PlacementTable.build(this.fleet, full, full);
+		long cells = 0;
+		for(int ship : this.fleet) {
+			cells += ship;
+		}
+		this.board = Board.create(N, cells);
+		this.xHits = new int[N];
+		this.yHits = new int[N];
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//the classic 4, 3, 3, 2, 2, 2, 1, 1, 1, 1 fleet of a 10 by 10 game, repeated once for every 100 cells of the board.
+	//A board smaller than that, which the classic fleet does not fit, gets a fleet of the same shape with its longest
+	//ship N / 2 long: one of the longest, two one shorter and so on, like the 3, 2, 2, 1, 1, 1 of BS-6-6-6
+	public static int[] defaultFleet(int N) {
+
+		if(N < 10) {
+			int longest = Math.max(1, N / 2);
+			int[] fleet = new int[longest * (longest + 1) / 2];
+			int i = 0;
+			for(int length = longest; length >= 1; length--) {
+				for(int k = length; k <= longest; k++) {
+					fleet[i++] = length;
+				}
+			}
+			return fleet;
+		}
+		int[] classic = {4, 3, 3, 2, 2, 2, 1, 1, 1, 1};
+		int copies = Math.max(1, N * N / 100);
+		int[] fleet = new int[classic.length * copies];
+		for(int i = 0; i < fleet.length; i++) {
+			fleet[i] = classic[i % classic.length];
+		}
+		return fleet;
+	}
+
+	//reads a fleet written as length:count pairs separated by commas, e.g. 4:1,3:2,2:3,1:4
+	public static int[] parseFleet(String s) {
+
+		List<Integer> fleet = new ArrayList<Integer>();
+		for(String pair : s.split(",")) {
+			String[] parts = pair.trim().split(":");
+			if(parts.length != 2) {
+				throw new IllegalArgumentException("Fleet entry " + pair + " is not length:count");
+			}
+			int length = Integer.parseInt(parts[0].trim());
+			int count = Integer.parseInt(parts[1].trim());
+			if(length < 1 || count < 0) {
+				throw new IllegalArgumentException("Fleet entry " + pair + " is not length:count");
+			}
+			for(int i = 0; i < count; i++) {
+				fleet.add(length);
+			}
+		}
+		int[] ships = new int[fleet.size()];
+		for(int i = 0; i < ships.length; i++) {
+			ships[i] = fleet.get(i);
+		}
+		return ships;
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//a random puzzle drawn with rand, its hidden solution can be read with getSolution until the next call
+	public Puzzle generate(SplittableRandom rand) {
+
+		for(int attempt = 0; attempt < RESTARTS; attempt++) {
+			if(placeFleet(rand)) {
+				return new Puzzle(fleet, xHits, yHits);
+			}
+		}
+		throw new IllegalArgumentException("Fleet of " + fleet.length + " ships does not fit on a " + N + "x" + N + " board");
+	}
+
+	//a random puzzle from its own seed
+	public Puzzle generate(long seed) {
+		return generate(new SplittableRandom(seed));
+	}
+
+	//tries to place the whole fleet on an empty board, false if a ship is left with nowhere to go
+	private boolean placeFleet(SplittableRandom rand) {
+
+		board.clearAll();
+		Arrays.fill(xHits, 0);
+		Arrays.fill(yHits, 0);
+		for(int i = 0; i < fleet.length; i++) {
+			PlacementTable table = tables[fleet[i]];
+			int size = table.size();
+			int p = -1;
+			//a few random positions first, which is all it takes while the board is still empty
+			for(int t = 0; t < RANDOM_TRIES; t++) {
+				int q = rand.nextInt(size);
+				if(!table.collides(board, q, false)) {
+					p = q;
+					break;
+				}
+			}
+			//then walk round the table from a random position so a gap is found if there is one
+			if(p < 0) {
+				int from = rand.nextInt(size);
+				for(int k = 0; k < size; k++) {
+					int q = (from + k) % size;
+					if(!table.collides(board, q, false)) {
+						p = q;
+						break;
+					}
+				}
+			}
+			if(p < 0) {
+				return false;
+			}
+			table.place(board, p);
+			//count the hits the ship adds
+			int start = table.start(p);
+			int length = fleet[i];
+			for(int k = 0; k < length; k++) {
+				int cell = table.isVertical(p) ? start + k * N : start + k;
+				xHits[cell % N]++;
+				yHits[cell / N]++;
+			}
+		}
+		return true;
+	}
+
+	//the hidden solution of the last puzzle generated
+	public Board getSolution() {
+		return board.copy();
+	}
+
+	//the last puzzle generated, giving away count different cells of its solution picked with rand
+	public Puzzle withHints(Puzzle puzzle, int count, SplittableRandom rand) {
+
+		if(count > N * N) {
+			throw new IllegalArgumentException("A " + N + "x" + N + " board has fewer than " + count + " cells to give away");
+		}
+		//the first count cells of a partial shuffle of the board
+		int[] cells = new int[N * N];
+		for(int i = 0; i < cells.length; i++) {
+			cells[i] = i;
+		}
+		Hint[] hints = new Hint[count];
+		for(int i = 0; i < count; i++) {
+			int j = i + rand.nextInt(cells.length - i);
+			int swap = cells[i];
+			cells[i] = cells[j];
+			cells[j] = swap;
+			hints[i] = Hint.of(board, cells[i] / N, cells[i] % N);
+		}
+		return puzzle.withHints(hints);
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//writes a puzzle in the three line input format, with the fourth line of hints if it has any
+	public static void write(Path file, Puzzle puzzle) throws IOException {
+
+		try (BufferedWriter bw = Files.newBufferedWriter(file)) {
+			bw.write(join(puzzle.getShips()));
+			bw.newLine();
+			bw.write(join(puzzle.getXHits()));
+			bw.newLine();
+			bw.write(join(puzzle.getYHits()));
+			bw.newLine();
+			if(puzzle.hasHints()) {
+				StringBuilder sb = new StringBuilder();
+				for(Hint hint : puzzle.getHints()) {
+					if(sb.length() > 0) {
+						sb.append(' ');
+					}
+					sb.append(hint);
+				}
+				bw.write(sb.toString());
+				bw.newLine();
+			}
+		}
+	}
+
+	//writes a solution as one line of X and ~ per row
+	public static void writeSolution(Path file, Board solution) throws IOException {
+
+		int N = solution.size();
+		try (BufferedWriter bw = Files.newBufferedWriter(file)) {
+			char[] line = new char[N];
+			for(int row = 0; row < N; row++) {
+				for(int col = 0; col < N; col++) {
+					line[col] = solution.get(row, col) ? 'X' : '~';
+				}
+				bw.write(line);
+				bw.newLine();
+			}
+		}
+	}
+
+	//reads a solution written by writeSolution
+	public static Bitboard readSolution(Path file) throws IOException {
+
+		List<String> rows = new ArrayList<String>();
+		for(String line : Files.readAllLines(file)) {
+			if(!line.isBlank()) {
+				rows.add(line.trim());
+			}
+		}
+		int N = rows.size();
+		Bitboard solution = new Bitboard(N);
+		for(int row = 0; row < N; row++) {
+			String line = rows.get(row);
+			if(line.length() != N) {
+				throw new IOException("Solution row " + (row + 1) + " is not " + N + " cells long: " + file);
+			}
+			for(int col = 0; col < N; col++) {
+				if(line.charAt(col) == 'X') {
+					solution.set(row * N + col);
+				}
+			}
+		}
+		return solution;
+	}
+
+	//the values separated by spaces
+	private static String join(int[] values) {
+
+		StringBuilder sb = new StringBuilder();
+		for(int i = 0; i < values.length; i++) {
+			if(i > 0) {
+				sb.append(' ');
+			}
+			sb.append(values[i]);
+		}
+		return sb.toString();
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	public static void main(String[] args) {
+
+		try {
+			if(args.length < 3) {
+				throw new IllegalArgumentException("Usage: java PuzzleGenerator <N> <count> <output directory or .bsc> "
+					+ "[--seed S] [--fleet length:count,...] [--hints H] [--solutions]");
+			}
+			int N = Integer.parseInt(args[0]);
+			int count = Integer.parseInt(args[1]);
+			Path dir = Paths.get(args[2]);
+			long seed = 0;
+			int[] fleet = defaultFleet(N);
+			boolean solutions = false;
+			int hints = 0;
+			//read in the options
+			for(int i = 3; i < args.length; i++) {
+				switch(args[i]) {
+					case "--seed":
+						seed = Long.parseLong(BattleShip.optionValue(args, i++));
+						break;
+					case "--fleet":
+						fleet = parseFleet(BattleShip.optionValue(args, i++));
+						break;
+					case "--hints":
+						hints = Integer.parseInt(BattleShip.optionValue(args, i++));
+						break;
+					case "--solutions":
+						solutions = true;
+						break;
+					default:
+						throw new IllegalArgumentException("Unknown option " + args[i]);
+				}
+			}
+
+			PuzzleGenerator generator = new PuzzleGenerator(N, fleet);
+			//every puzzle gets its own stream split off the seed, so puzzle i is the same however many are made
+			SplittableRandom seeds = new SplittableRandom(seed);
+			if(dir.getFileName().toString().endsWith(".bsc")) {
+				try (PuzzleCorpus.Writer corpus = new PuzzleCorpus.Writer(dir)) {
+					for(int i = 0; i < count; i++) {
+						Puzzle puzzle = generate(generator, seeds.split(), hints);
+						corpus.add(puzzle, solutions ? generator.getSolution() : null);
+					}
+				}
+				return;
+			}
+			Files.createDirectories(dir);
+			int digits = String.valueOf(Math.max(count - 1, 0)).length();
+			for(int i = 0; i < count; i++) {
+				Puzzle puzzle = generate(generator, seeds.split(), hints);
+				String name = String.format("gen-%d-%0" + digits + "d", N, i);
+				write(dir.resolve(name + ".txt"), puzzle);
+				if(solutions) {
+					writeSolution(dir.resolve(name + ".solution"), generator.getSolution());
+				}
+			}
+		}
+		catch (IOException | IllegalArgumentException ex) {
+			System.err.println(ex.getMessage());
+			System.exit(1);
+		}
+	}
+
+	//a puzzle drawn with rand, then its hints drawn with what is left of rand, so the hits do not depend on them
+	private static Puzzle generate(PuzzleGenerator generator, SplittableRandom rand, int hints) {
+		Puzzle puzzle = generator.generate(rand);
+		return hints > 0 ? generator.withHints(puzzle, hints, rand) : puzzle;
+	}
+ }
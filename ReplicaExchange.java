@@ -0,0 +1,310 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Exchanger;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ *  Heuristic Algorithms
+ *  ReplicaExchange.java
+ *  Parallel tempering: M annealing replicas of one puzzle, each a Solver on its own thread held at a fixed
+ *	temperature from a geometric ladder running from tLow up to tHigh. The cold replicas search near good boards
+ *	while the hot ones wander, and every so many steps replicas at neighbouring temperatures try to swap boards,
+ *	kept with probability min(1, exp((1/Tlow - 1/Thigh) * (Elow - Ehigh))) where E is the score, so a good board
+ *	found by a hot replica works its way down the ladder. Rather than copy boards between threads the two
+ *	replicas swap temperatures, which comes to the same thing.
+ *	Each pair of neighbouring temperatures has an Exchanger, which hands the two replicas' scores across without
+ *	a lock, and even rounds pair the temperatures 0-1, 2-3, ... while odd rounds pair 1-2, 3-4, ...
+ *	Both replicas decide the swap from the same random number, drawn by the colder one, so they always agree.
+ *	The budget is split between the replicas and counted in steps, so every replica takes part in every round
+ *	and a seeded run gives the same boards however its threads are scheduled. The replica with the lowest score wins.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ public class ReplicaExchange {
+
+	//how many steps each replica takes between exchanges when none is given
+	public static final int DEFAULT_INTERVAL = 100;
+	//how long a replica waits for its partner before checking whether the others have stopped
+	private static final long WAIT_MILLIS = 50;
+
+	//the puzzle being solved
+	private final Puzzle puzzle;
+	//how many replicas to run at once
+	private final int replicas;
+	//gives each replica its own seed
+	private final SplittableRandom seeds;
+	//the coldest and hottest temperatures of the ladder
+	private double tLow = AnnealingSchedule.DEFAULT_T_END;
+	private double tHigh = AnnealingSchedule.DEFAULT_T0;
+	//how many steps each replica takes between exchanges
+	private int interval = DEFAULT_INTERVAL;
+	//the wall-clock time every replica may take, and the steps shared between them, 0 for no limit
+	private long timeLimitNanos = 0;
+	private long maxIterations = 0;
+	//told every time any replica beats the best board reported so far, or null
+	private ProgressListener listener;
+	//the name of the strategy every replica searches with
+	private String strategy = "annealing";
+	//how many swaps were tried and kept between each pair of neighbouring temperatures in the last solve
+	private long[] tried = new long[0];
+	private long[] kept = new long[0];
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//create a replica exchange running the given number of replicas with unseeded random number generators
+	public ReplicaExchange(Puzzle puzzle, int replicas) {
+		this(puzzle, replicas, new SplittableRandom());
+	}
+
+	//create a replica exchange whose replicas' seeds are all derived from the given seed
+	public ReplicaExchange(Puzzle puzzle, int replicas, long seed) {
+		this(puzzle, replicas, new SplittableRandom(seed));
+	}
+
+	private ReplicaExchange(Puzzle puzzle, int replicas, SplittableRandom seeds) {
+		if(replicas < 2) {
+			throw new IllegalArgumentException("Number of replicas must be at least 2");
+		}
+		this.puzzle = puzzle;
+		this.replicas = replicas;
+		this.seeds = seeds;
+	}
+
+	//run the replicas at temperatures from tLow up to tHigh, this must be called before solve
+	public void setTemperatures(double tLow, double tHigh) {
+		if(!(tLow > 0 && tHigh >= tLow)) {
+			throw new IllegalArgumentException("Temperatures must satisfy t0 >= t-end > 0");
+		}
+		this.tLow = tLow;
+		this.tHigh = tHigh;
+	}
+
+	//try swaps between the replicas every this many steps, this must be called before solve
+	public void setInterval(int interval) {
+		if(interval < 1) {
+			throw new IllegalArgumentException("Exchange interval must be at least 1");
+		}
+		this.interval = interval;
+	}
+
+	//search every replica with the named strategy, one that keeps moves by the temperature (annealing or local),
+	//this must be called before solve
+	public void setStrategy(String strategy) {
+		String name = SearchStrategy.parse(strategy).name();
+		if(!name.equals("annealing") && !name.equals("local")) {
+			throw new IllegalArgumentException("Replicas need a strategy that anneals (annealing or local), not " + name);
+		}
+		this.strategy = strategy;
+	}
+
+	//tell a listener every time a replica finds a board better than any replica before it, null for none,
+	//it is only ever called by one replica at a time
+	public void setProgressListener(ProgressListener listener) {
+		this.listener = listener;
+	}
+
+	//stop every replica once it has run for this many nanoseconds, 0 for no limit
+	public void setTimeLimit(long nanos) {
+		if(nanos < 0) {
+			throw new IllegalArgumentException("Time limit cannot be negative");
+		}
+		this.timeLimitNanos = nanos;
+	}
+
+	//share this many steps between the replicas, 0 for no limit
+	public void setMaxIterations(long maxIterations) {
+		if(maxIterations < 0) {
+			throw new IllegalArgumentException("Maximum iterations cannot be negative");
+		}
+		this.maxIterations = maxIterations;
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//the temperature of rung k of the ladder, rung 0 being the coldest
+	public double temperature(int k) {
+		return tLow * Math.pow(tHigh / tLow, (double) k / (replicas - 1));
+	}
+
+	//how many swaps were tried, and how many kept, between rungs k and k + 1 in the last solve
+	public long swapsTried(int k) {
+		return tried[k];
+	}
+
+	public long swapsKept(int k) {
+		return kept[k];
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//runs the replicas, sharing maxSolutions steps between them, and returns the solver of the replica with the best board
+	public Solver solve(int maxSolutions) throws InterruptedException {
+
+		//every replica takes the same number of steps, so they all reach every round
+		long steps = Math.max(1, maxSolutions / replicas);
+		if(maxIterations > 0) {
+			steps = Math.min(steps, Math.max(1, maxIterations / replicas));
+		}
+		int budget = (int) steps;
+		//set by the first replica to reach a perfect solution, which every replica stops for
+		AtomicBoolean solved = new AtomicBoolean();
+		//set by any replica that stops before taking all its steps, so none is left waiting for it at an exchange
+		AtomicBoolean stop = new AtomicBoolean();
+		//the replicas each report their own improvements, so pass on only those that beat every replica so far
+		ProgressListener shared = listener == null ? null : ProgressListener.bestOnly(listener);
+		//one exchanger, and one pair of swap counts, for each pair of neighbouring rungs
+		List<Exchanger<double[]>> pairs = new ArrayList<Exchanger<double[]>>();
+		for(int k = 0; k + 1 < replicas; k++) {
+			pairs.add(new Exchanger<double[]>());
+		}
+		AtomicLongArray triedCounts = new AtomicLongArray(replicas - 1);
+		AtomicLongArray keptCounts = new AtomicLongArray(replicas - 1);
+		//replica k starts on rung k
+		List<Callable<Solver>> chains = new ArrayList<Callable<Solver>>();
+		for(int k = 0; k < replicas; k++) {
+			Solver solver = new Solver(puzzle, seeds.nextLong());
+			solver.setSchedule(AnnealingSchedule.fixed(temperature(k)));
+			solver.setTimeLimit(timeLimitNanos);
+			solver.setMaxIterations(steps);
+			solver.setProgressListener(shared);
+			solver.setStrategy(SearchStrategy.parse(strategy));
+			solver.setReplica(new Replica(k, seeds.nextLong(), pairs, stop, triedCounts, keptCounts));
+			chains.add(() -> {
+				boolean tookEveryStep = false;
+				try {
+					solver.solve(budget, solved);
+					tookEveryStep = solver.getStopReason() == Solver.StopReason.BUDGET 
+						|| solver.getStopReason() == Solver.StopReason.MAX_ITERATIONS;
+					return solver;
+				}
+				finally {
+					if(!tookEveryStep) {
+						stop.set(true);
+					}
+				}
+			});
+		}
+
+		//a pool thread waiting at an exchange cannot run another replica, so every replica needs a thread of its own
+		ExecutorService pool = Executors.newFixedThreadPool(replicas);
+		try {
+			//run every replica and keep the one with the lowest score
+			Solver best = null;
+			for(Future<Solver> chain : pool.invokeAll(chains)) {
+				Solver solver = chain.get();
+				if(best == null || solver.getScore() < best.getScore()) {
+					best = solver;
+				}
+			}
+			tried = new long[replicas - 1];
+			kept = new long[replicas - 1];
+			for(int k = 0; k + 1 < replicas; k++) {
+				tried[k] = triedCounts.get(k);
+				kept[k] = keptCounts.get(k);
+			}
+			return best;
+		}
+		catch (ExecutionException ex) {
+			throw new IllegalStateException("Replica failed", ex.getCause());
+		}
+		finally {
+			pool.shutdownNow();
+		}
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//one replica's side of the exchanges, called by its Solver between steps on the replica's own thread
+	final class Replica {
+
+		//the rung the replica is on, and how many rounds it has been through
+		private int rung;
+		private long round;
+		//draws the swap decisions this replica makes as the colder of a pair
+		private final SplittableRandom rand;
+		private final List<Exchanger<double[]>> pairs;
+		private final AtomicBoolean stop;
+		private final AtomicLongArray tried, kept;
+
+		private Replica(int rung, long seed, List<Exchanger<double[]>> pairs, AtomicBoolean stop, AtomicLongArray tried,
+				AtomicLongArray kept) {
+			this.rung = rung;
+			this.rand = new SplittableRandom(seed);
+			this.pairs = pairs;
+			this.stop = stop;
+			this.tried = tried;
+			this.kept = kept;
+		}
+
+		//how many steps the solver takes between exchanges
+		int interval() {
+			return interval;
+		}
+
+		//meets the replica on the neighbouring rung this round, if there is one, and swaps temperatures with it
+		//if the rule says so. Returns false if the partner has stopped, when this replica should stop too
+		boolean exchange(Solver solver) {
+
+			//even rounds pair rungs 0-1, 2-3, ..., odd rounds 1-2, 3-4, ...
+			int lower = (rung & 1) == (round & 1) ? rung : rung - 1;
+			round++;
+			if(lower < 0 || lower + 1 >= replicas) {
+				return true;
+			}
+			boolean colder = lower == rung;
+			double u = colder ? rand.nextDouble() : 0;
+			double[] theirs = handOff(pairs.get(lower), new double[] { solver.currentScore(), u });
+			if(theirs == null) {
+				return false;
+			}
+			//the colder replica's score and random number, and the hotter one's score
+			double coldScore = colder ? solver.currentScore() : theirs[0];
+			double hotScore = colder ? theirs[0] : solver.currentScore();
+			double draw = colder ? u : theirs[1];
+			double beta = 1 / temperature(lower) - 1 / temperature(lower + 1);
+			boolean swap = draw < Math.exp(beta * (coldScore - hotScore));
+			if(colder) {
+				tried.incrementAndGet(lower);
+				if(swap) {
+					kept.incrementAndGet(lower);
+				}
+			}
+			if(swap) {
+				rung = colder ? lower + 1 : lower;
+				solver.setTemperature(temperature(rung));
+			}
+			return true;
+		}
+
+		//gives mine to the partner waiting at the exchanger and returns theirs, or null if the replicas have stopped
+		private double[] handOff(Exchanger<double[]> pair, double[] mine) {
+
+			while(true) {
+				try {
+					return pair.exchange(mine, WAIT_MILLIS, TimeUnit.MILLISECONDS);
+				}
+				catch (TimeoutException ex) {
+					if(stop.get()) {
+						return null;
+					}
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					return null;
+				}
+			}
+		}
+	}
+ }
@@ -0,0 +1,29 @@
+/**
+ *  Heuristic Algorithms
+ *  ScalarBoardCounter.java
+ *  The counting kernel in plain Java: one Long.bitCount per word, which the JIT turns into a popcnt instruction.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ public final class ScalarBoardCounter implements BoardCounter {
+
+	@Override
+	public void rowCounts(long[] words, int W, int rows, int[] counts) {
+
+		for(int r = 0; r < rows; r++) {
+			int count = 0;
+			for(int w = r * W; w < (r + 1) * W; w++) {
+				count += Long.bitCount(words[w]);
+			}
+			counts[r] = count;
+		}
+	}
+
+	@Override
+	public String name() {
+		return "scalar";
+	}
+ }
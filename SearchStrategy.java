@@ -0,0 +1,63 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ *  Heuristic Algorithms
+ *  SearchStrategy.java
+ *  What each step of a solve does. The Solver owns the board, the ships on it, the running score and the best board,
+ *	and runs the loop that counts solutions and checks the limits; a strategy decides how to move the ships on each
+ *	step, using the Solver's moves (simulated annealing, hill climbing, lifting one ship and putting it down again,
+ *	or moving one or two ships straight on the board).
+ *	Strategies keep state between steps, so every Solver needs an instance of its own.
+ *	 - AnnealingStrategy is the original search: simulated annealing for three quarters of the solutions, then hill climbing
+ *	 - HillClimbingStrategy hill climbs for the whole budget
+ *	 - TabuStrategy moves one ship at a time to its best placement, never straight back to somewhere it recently left
+ *	 - LocalMoveStrategy anneals with small moves (shift, rotate, swap, relocate) made straight on the board
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ public interface SearchStrategy {
+
+	//the names parse accepts
+	String[] NAMES = {"annealing", "hill", "tabu", "local"};
+
+	//gets ready for a solve of maxSolutions solutions, called once the initial solution is on the board
+	void prepare(Solver solver, int maxSolutions);
+
+	//makes one step of the search
+	void step(Solver solver);
+
+	//the name the strategy is chosen by
+	String name();
+
+	//writes whatever the strategy keeps between steps to a checkpoint, nothing by default
+	default void writeState(DataOutput out) throws IOException {
+	}
+
+	//reads back what writeState wrote, called after prepare when a solve resumes from a checkpoint
+	default void readState(DataInput in) throws IOException {
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//a new strategy with the given name (annealing, hill, tabu or local)
+	static SearchStrategy parse(String name) {
+		switch(name.toLowerCase(Locale.ROOT)) {
+			case "annealing":
+				return new AnnealingStrategy();
+			case "hill":
+				return new HillClimbingStrategy();
+			case "tabu":
+				return new TabuStrategy();
+			case "local":
+				return new LocalMoveStrategy();
+			default:
+				throw new IllegalArgumentException("Unknown strategy " + name);
+		}
+	}
+ }
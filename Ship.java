@@ -0,0 +1,28 @@
+/**
+ *  Heuristic Algorithms
+ *  Ship.java
+ *  Holds information on each ship placed on the board: where it starts and ends, its size, which way it lies
+ *	and which entry of its PlacementTable it is at.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ class Ship {
+ 	public int startPos_;
+ 	public int endPos_;
+ 	public int size_;
+ 	public boolean vertical_;
+ 	//which entry of the PlacementTable for its size the ship is at
+ 	public int placement_;
+
+	//create a ship given its start and end position, size, its direction and its placement
+ 	public Ship(int startPos, int endPos, int size, boolean vertical, int placement) {
+ 		startPos_ = startPos;
+ 		endPos_ = endPos;
+ 		size_ = size;
+ 		vertical_ = vertical;
+ 		placement_ = placement;
+ 	}
+ }
\ No newline at end of file
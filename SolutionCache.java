@@ -0,0 +1,385 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ *  Heuristic Algorithms
+ *  SolutionCache.java
+ *  Remembers the best board found for each puzzle, so a puzzle that comes round again is answered without a solve.
+ *	Each board is kept with the biggest budget spent searching for it, and only answers a search with no bigger
+ *	budget, unless it solved the puzzle, so asking for more solutions always gets a search that might do better.
+ *	A puzzle is the same problem as its transpose (xHits and yHits swapped) and its mirror images (either reversed),
+ *	8 orientations in all, so every puzzle is stored under a canonical form: the ships sorted, and whichever of the
+ *	8 orientations of the hits, and of any hints, comes first. A board found for one orientation is turned to fit
+ *	the caller's.
+ *	Boards are held the way Board.create picks for their size and number of ships, and only their ship cells are
+ *	ever turned. The least recently used entries are dropped once there are more than maxEntries of them or they
+ *	take up more than maxBytes. The cache can be saved to a file and loaded again, so a warm cache survives a
+ *	restart; a sparse board is saved as the list of its ship cells, a dense one 8 cells to a byte.
+ *	All methods are synchronized, so one cache can be shared by many solving threads.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ public class SolutionCache {
+
+	//the first four bytes of a saved cache, the last being its format version, those of the second format, which
+	//packed every board, and those of the first, which also had no budgets
+	private static final int MAGIC = 0x42534333;
+	private static final int MAGIC_V2 = 0x42534332;
+	private static final int MAGIC_V1 = 0x42534331;
+
+	//the limits used when none are given
+	public static final int DEFAULT_ENTRIES = 100000;
+	public static final long DEFAULT_BYTES = 256L << 20;
+	
+	//the most entries, and roughly the most bytes of memory, the cache may hold
+	private final int maxEntries;
+	private final long maxBytes;
+	//the entries, least recently used first
+	private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+	//the memory the entries take up, as estimated by Entry.bytes
+	private long bytes;
+	//how many lookups found an entry and how many did not
+	private long hits, misses;
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	public SolutionCache(int maxEntries, long maxBytes) {
+		if(maxEntries < 1 || maxBytes < 1) {
+			throw new IllegalArgumentException("Cache must allow at least 1 entry and 1 byte");
+		}
+		this.maxEntries = maxEntries;
+		this.maxBytes = maxBytes;
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//the best board stored for this puzzle or any of its orientations, turned to fit this one, or null if there is
+	//none or it is not a perfect solution and was found with a smaller budget than this, so it is worth searching again
+	public synchronized Board get(Puzzle puzzle, long budget) {
+
+		Canonical canonical = canonical(puzzle);
+		Entry entry = entries.get(canonical.key);
+		if(entry == null || (entry.score > 0 && entry.budget < budget)) {
+			misses++;
+			return null;
+		}
+		hits++;
+		return fromCanonical(entry.board, canonical.transform);
+	}
+
+	//stores a board a search with this budget found for a puzzle, unless a board at least as good is already
+	//stored for it, when only the bigger of the two budgets is kept
+	public synchronized void put(Puzzle puzzle, Board board, int score, long budget) {
+
+		Canonical canonical = canonical(puzzle);
+		Entry old = entries.get(canonical.key);
+		if(old != null) {
+			entries.remove(canonical.key);
+			bytes -= old.bytes;
+			budget = Math.max(budget, old.budget);
+			if(old.score <= score) {
+				add(canonical.key, new Entry(old.board, old.score, canonical.key, budget));
+				return;
+			}
+		}
+		add(canonical.key, new Entry(toCanonical(board, canonical.transform), score, canonical.key, budget));
+	}
+
+	//adds an entry as the most recently used and drops the least recently used ones until it all fits
+	private void add(Key key, Entry entry) {
+
+		entries.put(key, entry);
+		bytes += entry.bytes;
+		Iterator<Entry> eldest = entries.values().iterator();
+		while((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+			bytes -= eldest.next().bytes;
+			eldest.remove();
+		}
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	//the estimated memory the entries take up
+	public synchronized long bytes() {
+		return bytes;
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//the 8 orientations are numbered by three bits: 4 transposes the board, then 2 reverses the columns
+	//and 1 reverses the rows. A cell (row, col) of a board is at cell(transform, row, col) of the turned board.
+	private static int cell(int transform, int N, int row, int col) {
+
+		if((transform & 4) != 0) {
+			int swap = row;
+			row = col;
+			col = swap;
+		}
+		if((transform & 2) != 0) {
+			col = N - 1 - col;
+		}
+		if((transform & 1) != 0) {
+			row = N - 1 - row;
+		}
+		return row * N + col;
+	}
+
+	//the cell that cell(transform, N, row, col) came from: the reversals undone, then the transpose
+	private static int uncell(int transform, int N, int row, int col) {
+
+		if((transform & 1) != 0) {
+			row = N - 1 - row;
+		}
+		if((transform & 2) != 0) {
+			col = N - 1 - col;
+		}
+		return (transform & 4) != 0 ? col * N + row : row * N + col;
+	}
+
+	//turns a board of the caller's orientation into the canonical one
+	private static Board toCanonical(Board board, int transform) {
+
+		int N = board.size();
+		int[] cells = Board.cells(board);
+		Board turned = Board.create(N, cells.length);
+		for(int cell : cells) {
+			turned.set(cell(transform, N, cell / N, cell % N));
+		}
+		return turned;
+	}
+
+	//turns a board of the canonical orientation back into the caller's
+	private static Board fromCanonical(Board canonical, int transform) {
+
+		int N = canonical.size();
+		int[] cells = Board.cells(canonical);
+		Board board = Board.create(N, cells.length);
+		for(int cell : cells) {
+			board.set(uncell(transform, N, cell / N, cell % N));
+		}
+		return board;
+	}
+
+	//the canonical form of a puzzle and the orientation that turns the puzzle into it
+	private static Canonical canonical(Puzzle puzzle) {
+
+		int[] ships = puzzle.getShips();
+		Arrays.sort(ships);
+		int[] xHits = puzzle.getXHits();
+		int[] yHits = puzzle.getYHits();
+		int N = xHits.length;
+		Hint[] hints = puzzle.getHints();
+		int[] best = null;
+		int bestTransform = 0;
+		for(int transform = 0; transform < 8; transform++) {
+			//the hits of the turned puzzle, the columns of a transposed board are the rows of the original
+			int[] x = (transform & 4) != 0 ? yHits : xHits;
+			int[] y = (transform & 4) != 0 ? xHits : yHits;
+			int[] key = new int[1 + ships.length + 2 * N + hints.length];
+			key[0] = hints.length == 0 ? ships.length : -1 - ships.length;
+			System.arraycopy(ships, 0, key, 1, ships.length);
+			for(int i = 0; i < N; i++) {
+				key[1 + ships.length + i] = (transform & 2) != 0 ? x[N - 1 - i] : x[i];
+				key[1 + ships.length + N + i] = (transform & 1) != 0 ? y[N - 1 - i] : y[i];
+			}
+			//then the hints turned the same way, each its cell and kind, in order of cell
+			int[] codes = new int[hints.length];
+			for(int i = 0; i < hints.length; i++) {
+				Hint hint = hints[i];
+				codes[i] = cell(transform, N, hint.getRow(), hint.getCol()) * 8 + hint.getKind().turned(transform).ordinal();
+			}
+			Arrays.sort(codes);
+			System.arraycopy(codes, 0, key, 1 + ships.length + 2 * N, codes.length);
+			if(best == null || Arrays.compare(key, best) < 0) {
+				best = key;
+				bestTransform = transform;
+			}
+		}
+		return new Canonical(new Key(best), bestTransform);
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//writes every entry to a file, least recently used first so loading it gives the same order,
+	//by way of a temporary file so a crash part way through leaves the old snapshot in place
+	public synchronized void save(Path file) throws IOException {
+
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(entries.size());
+			for(Entry entry : entries.values()) {
+				int[] key = entry.key.values;
+				out.writeInt(key.length);
+				for(int i = 0; i < key.length; i++) {
+					out.writeInt(key[i]);
+				}
+				out.writeInt(entry.score);
+				out.writeLong(entry.budget);
+				//a sparse board as its ship cells, a dense one a row at a time, 8 cells to a byte
+				int N = entry.board.size();
+				out.writeInt(N);
+				int[] cells = Board.cells(entry.board);
+				boolean sparse = entry.board instanceof SparseBoard;
+				out.writeBoolean(sparse);
+				if(sparse) {
+					out.writeInt(cells.length);
+					for(int cell : cells) {
+						out.writeInt(cell);
+					}
+				}
+				else {
+					byte[] packed = new byte[(N * N + 7) / 8];
+					for(int cell : cells) {
+						packed[cell >>> 3] |= 1 << (cell & 7);
+					}
+					out.write(packed);
+				}
+			}
+		}
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	//adds the entries saved in a file, as the limits allow
+	public synchronized void load(Path file) throws IOException {
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			int magic = in.readInt();
+			if(magic != MAGIC && magic != MAGIC_V2 && magic != MAGIC_V1) {
+				throw new IOException("Not a solution cache file: " + file);
+			}
+			int count = in.readInt();
+			for(int e = 0; e < count; e++) {
+				int[] key = new int[in.readInt()];
+				for(int i = 0; i < key.length; i++) {
+					key[i] = in.readInt();
+				}
+				int score = in.readInt();
+				//a board saved without its budget only answers a search it solved the puzzle for
+				long budget = magic == MAGIC_V1 ? 0 : in.readLong();
+				int N = in.readInt();
+				Board board = magic == MAGIC && in.readBoolean() ? readCells(in, N) : readPacked(in, N);
+				Key k = new Key(key);
+				Entry old = entries.remove(k);
+				if(old != null) {
+					bytes -= old.bytes;
+				}
+				add(k, new Entry(board, score, k, budget));
+			}
+		}
+	}
+
+	//a board saved as the count of its ship cells and then the cells
+	private static Board readCells(DataInputStream in, int N) throws IOException {
+
+		int count = in.readInt();
+		Board board = Board.create(N, count);
+		for(int i = 0; i < count; i++) {
+			board.set(in.readInt());
+		}
+		return board;
+	}
+
+	//a board saved 8 cells to a byte, only the bytes with ships in them looked into
+	private static Board readPacked(DataInputStream in, int N) throws IOException {
+
+		byte[] packed = new byte[(N * N + 7) / 8];
+		in.readFully(packed);
+		long count = 0;
+		for(byte b : packed) {
+			count += Integer.bitCount(b & 0xff);
+		}
+		Board board = Board.create(N, count);
+		for(int i = 0; i < packed.length; i++) {
+			for(int bits = packed[i] & 0xff; bits != 0; bits &= bits - 1) {
+				board.set(i * 8 + Integer.numberOfTrailingZeros(bits));
+			}
+		}
+		return board;
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//a canonical puzzle: the number of ships, the ships sorted, then the hits of the chosen orientation.
+	//A puzzle with hints has -1 - the number of ships first, so it never shares a key with one without,
+	//and its hints last
+	private static final class Key {
+		private final int[] values;
+		private final int hash;
+
+		Key(int[] values) {
+			this.values = values;
+			this.hash = Arrays.hashCode(values);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Key && Arrays.equals(values, ((Key) o).values);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	//a stored board in the canonical orientation, with its score, the biggest budget spent on the puzzle and its key
+	//for saving
+	private static final class Entry {
+		private final Board board;
+		private final int score;
+		private final long budget;
+		private final Key key;
+		//roughly what the entry, its key, its board and its place in the map take up
+		private final long bytes;
+
+		Entry(Board board, int score, Key key, long budget) {
+			this.board = board;
+			this.score = score;
+			this.budget = budget;
+			this.key = key;
+			int N = board.size();
+			long cells = 0;
+			for(int row = 0; row < N; row++) {
+				cells += board.rowCount(row);
+			}
+			long boardBytes = board instanceof SparseBoard ? SparseBoard.bytes(N, cells) : Bitboard.bytes(N);
+			this.bytes = 160 + 4L * key.values.length + boardBytes;
+		}
+	}
+
+	//the canonical key of a puzzle and the orientation that turns the puzzle into it
+	private static final class Canonical {
+		private final Key key;
+		private final int transform;
+
+		Canonical(Key key, int transform) {
+			this.key = key;
+			this.transform = transform;
+		}
+	}
+ }
@@ -0,0 +1,1464 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ *  Heuristic Algorithms
+ *  Solver.java
+ *  Holds everything needed to solve one Battleship Solitaire puzzle: its own copy of the ships and hits,
+ *	the board, the ships placed on it and a random number generator.
+ *	A Solver is not shared between threads, but any number of Solvers can run at once on different threads
+ *	as none of their state is static.
+ *	A puzzle's hints are hard constraints on where each ship may go, kept by leaving the placements that go
+ *	against them out of the PlacementTables, and a ship hint left empty costs Hint.PENALTY in the score.
+ *	A long solve can checkpoint its whole state to a file every so often and when it stops, and a later solve of
+ *	the same puzzle, budget and settings can resume from it. Each checkpoint reseeds the random number generator
+ *	from itself and stores the new seed, so a resumed search makes exactly the moves the one that wrote it would
+ *	have made next. Checkpoints every so many steps, rather than every so many seconds, fall on the same steps every
+ *	run, so a search stopped at one of them and resumed ends on the same board as one that was never stopped.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *  
+ **/
+ 
+
+ public class Solver {
+	
+	//why a solve stopped: it used up its solutions, reached a perfect board, ran out of time or steps, 
+	//or was told to stop by another chain
+	public enum StopReason { BUDGET, SOLVED, TIME_LIMIT, MAX_ITERATIONS, STOPPED }
+	
+	//what ship is currently being placed
+	private int currShip = 0;
+	//the size of the ship to be placed
+	private int shipSize;
+	//how many ships have been placed
+	private int shipsPlacedCount = 0;
+	//the placements for ships of the current size, and which one is being tried
+	private PlacementTable table;
+	private int placement = 0;
+	//every legal placement for each ship length, indexed by length, after the presolve has fixed what it can
+	private PlacementTable[] tables;
+	//are the tables still pruned on the presolved cells and the hints, see initialSolution
+	private boolean presolved = true;
+	//is the ship to be placed vertically or horizontally
+	private boolean vertical;
+	//the start and end position of the ship to be placed
+	private int startPos = 0;
+	private int endPos = 0;
+	//has the current ship been placed
+	private boolean shipPlaced = false;
+	private boolean moveValid;
+	//the puzzle being solved
+	private final Puzzle puzzle;
+	//three int arrays to store the ships, xHits and yHits
+	private final int[] ships;
+	private final int[] xHits;
+	private final int[] yHits;
+	//the length of the board
+	private final int N;
+	//the solution board the search is currently at
+	private Board currentBoard;
+	//the best solution board found so far, its score and the placement of each ship on it
+	private Board bestBoard;
+	private int bestScore;
+	private int[] bestPlacements;
+	//list of ships on the board
+	private ArrayList<Ship> shipsOnBoard = new ArrayList<Ship>();
+	//flag for whether initial solution or not
+	private boolean initial = true;
+	//flag if the solution is identical to our original solution
+	private boolean identicalSolution = false; 
+	//ship counter for simulated annealing 
+	private int shipCounter, simACounter;
+	//how many steps between lowering the ship counter, and how many have passed since it was last lowered
+	private int interval, intervalCounter;
+	//has the search moved on from annealing to hill climbing
+	private boolean climbing;
+	//ignore the perimeters flag
+	private boolean ignorePerimeters = false;
+	//the number of ship cells in each row and column of the board being worked on
+	private int[] rowCounts;
+	private int[] colCounts;
+	//scratch for calculateFitness: the row and column totals
+	private final int[] fitnessRows;
+	private final int[] fitnessCols;
+	//the ship hint cells and the water hint cells, covering one costs or pays back Hint.PENALTY, or null if there are no hints
+	private final Board shipHints;
+	private final Board waterHints;
+	//how many cells the ships cover between them, which decides how the boards are held
+	private final long shipCells;
+	//the running score of the board being worked on, and the score of the current solution board
+	private int score, currentScore;
+	//the annealing schedule and its temperature
+	private AnnealingSchedule schedule = AnnealingSchedule.CLASSIC;
+	private double temperature;
+	//how far through the annealing the search is, and the step the best score last improved on
+	private int annealStep, annealSteps, lastImprovement;
+	//the temperature the adaptive schedule last reheated to, and the step it did so
+	private double reheatTemperature;
+	private int reheatStep;
+	//how many solutions have been evaluated (identical boards are not counted)
+	private int solutionCounter = 0;
+	//how many steps the search has taken, identical boards included
+	private long iterations = 0;
+	//the wall-clock time and the number of steps a solve may take, 0 for no limit
+	private long timeLimitNanos = 0;
+	private long maxIterations = 0;
+	//why the last solve stopped
+	private StopReason stopReason;
+	//what the last solve did, and the time it started
+	private final SolverStats stats = new SolverStats();
+	private long startNanos;
+	//told every time the best score improves, or null
+	private ProgressListener listener;
+	//decides what each step of the search does
+	private SearchStrategy strategy = new AnnealingStrategy();
+	//the replica exchange this solver is a replica in, or null
+	private ReplicaExchange.Replica replica;
+	//the ship lifted off the board by liftShip and the placement it was lifted from, and when the move began
+	private Ship lifted;
+	private int liftedPlacement;
+	private long liftStart;
+	//random number generator, owned by this solver, reseeded from itself at each checkpoint
+	private SplittableRandom rand;
+	//where to checkpoint the search and how often, in nanoseconds or, if checkpointSteps is not 0, in steps,
+	//null for never, and the checkpoint the next solve resumes from
+	private Path checkpointFile;
+	private long checkpointNanos;
+	private long checkpointSteps;
+	private byte[] resumeFrom;
+	//the step the last checkpoint was written or read at
+	private long checkpointIteration;
+	//scratch space for moves, allocated once so that the search loop allocates nothing:
+	//the board a move is made on, a permutation of the ships that is partly shuffled to pick ships at random,
+	//the ships being moved in index order, and where each of them was before the move
+	private Board workBoard;
+	private final int[] shipOrder;
+	private final boolean[] moving;
+	private final int[] movedShips;
+	private int movedCount;
+	private final int[] oldStart;
+	private final int[] oldEnd;
+	private final boolean[] oldVertical;
+	private final int[] oldPlacement;
+
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//create a solver for a puzzle with an unseeded random number generator
+	public Solver(Puzzle puzzle) {
+		this(puzzle, new SplittableRandom());
+	}
+	
+	//create a solver for a puzzle whose random number generator starts from the given seed, 
+	//two solvers with the same seed, puzzle and settings make exactly the same moves
+	public Solver(Puzzle puzzle, long seed) {
+		this(puzzle, new SplittableRandom(seed));
+	}
+	
+	private Solver(Puzzle puzzle, SplittableRandom rand) {
+		this.puzzle = puzzle;
+		//take our own copies as initialSolution() sorts the ships
+		this.ships = puzzle.getShips();
+		this.xHits = puzzle.getXHits();
+		this.yHits = puzzle.getYHits();
+		this.N = puzzle.size();
+		this.rand = rand;
+		this.tables = PlacementTable.build(ships, xHits, yHits, new Presolve(xHits, yHits, puzzle.getHints()));
+		long cells = 0;
+		for(int ship : ships) {
+			cells += ship;
+		}
+		this.shipCells = cells;
+		//what covering each hint cell does to the score: a ship on water costs, a ship on a ship hint pays it back
+		if(puzzle.hasHints()) {
+			this.shipHints = Board.create(N, puzzle.getHints().length);
+			this.waterHints = Board.create(N, puzzle.getHints().length);
+			for(Hint hint : puzzle.getHints()) {
+				(hint.getKind().isShip() ? shipHints : waterHints).set(hint.getRow() * N + hint.getCol());
+			}
+		}
+		else {
+			this.shipHints = null;
+			this.waterHints = null;
+		}
+		this.workBoard = Board.create(N, shipCells);
+		this.fitnessRows = new int[N];
+		this.fitnessCols = new int[N];
+		int K = ships.length;
+		this.shipOrder = new int[K];
+		for(int i = 0; i < K; i++) {
+			shipOrder[i] = i;
+		}
+		this.moving = new boolean[K];
+		this.movedShips = new int[K];
+		this.oldStart = new int[K];
+		this.oldEnd = new int[K];
+		this.oldVertical = new boolean[K];
+		this.oldPlacement = new int[K];
+	}
+	
+	//use a different annealing schedule, this must be called before solve
+	public void setSchedule(AnnealingSchedule schedule) {
+		this.schedule = schedule;
+	}
+	
+	//search with a different strategy, this must be called before solve. A strategy keeps its own state between 
+	//steps, so each Solver needs an instance of its own
+	public void setStrategy(SearchStrategy strategy) {
+		this.strategy = strategy;
+	}
+	
+	//tell a listener about every improvement of the best score, null for none, this must be called before solve
+	public void setProgressListener(ProgressListener listener) {
+		this.listener = listener;
+	}
+	
+	//stop a solve once it has run for this many nanoseconds, 0 for no limit
+	public void setTimeLimit(long nanos) {
+		if(nanos < 0) {
+			throw new IllegalArgumentException("Time limit cannot be negative");
+		}
+		this.timeLimitNanos = nanos;
+	}
+	
+	//stop a solve after this many steps, counting the ones that left the board unchanged, 0 for no limit
+	public void setMaxIterations(long maxIterations) {
+		if(maxIterations < 0) {
+			throw new IllegalArgumentException("Maximum iterations cannot be negative");
+		}
+		this.maxIterations = maxIterations;
+	}
+	
+	//make this solver a replica in a replica exchange, which may change its temperature between steps,
+	//this must be called before solve
+	void setReplica(ReplicaExchange.Replica replica) {
+		this.replica = replica;
+	}
+	
+	//write the whole state of the search to file every intervalNanos of a solve and when it stops, null for never,
+	//this must be called before solve
+	public void setCheckpoint(Path file, long intervalNanos) {
+		if(intervalNanos <= 0) {
+			throw new IllegalArgumentException("Checkpoint interval must be more than 0");
+		}
+		this.checkpointFile = file;
+		this.checkpointNanos = intervalNanos;
+		this.checkpointSteps = 0;
+	}
+	
+	//write the whole state of the search to file every intervalSteps steps of a solve and when it stops, null for
+	//never, this must be called before solve
+	public void setCheckpointSteps(Path file, long intervalSteps) {
+		if(intervalSteps <= 0) {
+			throw new IllegalArgumentException("Checkpoint interval must be more than 0");
+		}
+		this.checkpointFile = file;
+		this.checkpointNanos = 0;
+		this.checkpointSteps = intervalSteps;
+	}
+	
+	//carry the next solve on from a checkpoint instead of starting afresh. The solve must be given the same budget,
+	//strategy and schedule as the one that wrote it. The time limit starts again from the resume, while the step
+	//limit counts the steps taken before the checkpoint too
+	public void resume(Path file) throws IOException {
+		byte[] bytes = Files.readAllBytes(file);
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+		if(bytes.length < 8 || in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) {
+			throw new IOException("Not a solver checkpoint: " + file);
+		}
+		int n = in.readInt();
+		if(n != N || !Arrays.equals(readInts(in), puzzle.getShips()) || !Arrays.equals(readInts(in), xHits) 
+				|| !Arrays.equals(readInts(in), yHits) || !Arrays.equals(readInts(in), hintCodes())) {
+			throw new IllegalArgumentException("Checkpoint " + file + " is for a different puzzle");
+		}
+		this.resumeFrom = bytes;
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//creates an initial solution and then does simulated annealing until maxSolutions solutions have been evaluated,
+	//a perfect solution is found or the time or step limit is reached
+	public void solve(int maxSolutions) {
+		solve(maxSolutions, null);
+	}
+	
+	//as solve(maxSolutions), but when stop is given the search is one of several chains sharing it:
+	//it gives up as soon as stop is set, and sets stop itself when it reaches a perfect solution
+	public void solve(int maxSolutions, AtomicBoolean stop) {
+		
+		long deadline = System.nanoTime() + timeLimitNanos;
+		checkpointIteration = -1;
+		if(resumeFrom != null) {
+			restoreCheckpoint(maxSolutions);
+		}
+		else {
+			prepare(maxSolutions);
+			strategy.prepare(this, maxSolutions);
+		}
+		long nextCheckpoint = System.nanoTime() + checkpointNanos;
+		stopReason = StopReason.BUDGET;
+		//call this method in a for loop from 0 to < maxSolutions
+		while(solutionCounter < maxSolutions) {
+			//a perfect solution cannot be improved on
+			if(bestScore == 0) {
+				break;
+			}
+			//another chain has already found a perfect solution
+			if(stop != null && stop.get()) {
+				stopReason = StopReason.STOPPED;
+				break;
+			}
+			//the step limit counts every step, so a run of identical boards cannot go on for ever
+			if(maxIterations > 0 && iterations >= maxIterations) {
+				stopReason = StopReason.MAX_ITERATIONS;
+				break;
+			}
+			//a clock read is cheap next to a step, so the deadline is checked every time round
+			if(timeLimitNanos > 0 && System.nanoTime() - deadline >= 0) {
+				stopReason = StopReason.TIME_LIMIT;
+				break;
+			}
+			strategy.step(this);
+			iterations++;
+			//a replica meets the replica at the next temperature every so many steps, and gives up if it has stopped
+			if(replica != null && iterations % replica.interval() == 0 && !replica.exchange(this)) {
+				stopReason = StopReason.STOPPED;
+				break;
+			}
+			//if the board remains unchanged (i.e. no ships have moved) do not count as a solution
+			if(identicalSolution == false) {
+				solutionCounter++;
+				stats.countedIterations++;
+			}
+			else {
+				stats.identicalIterations++;
+			}
+			boolean due = checkpointSteps > 0 ? iterations % checkpointSteps == 0 : System.nanoTime() - nextCheckpoint >= 0;
+			if(checkpointFile != null && due) {
+				writeCheckpoint(maxSolutions);
+				nextCheckpoint = System.nanoTime() + checkpointNanos;
+			}
+		}
+		//tell the other chains to stop
+		if(bestScore == 0) {
+			stopReason = StopReason.SOLVED;
+			if(stop != null) {
+				stop.set(true);
+			}
+		}
+		//the last checkpoint is where the search stopped, so it can be carried on with a bigger budget or more time
+		if(checkpointFile != null && iterations != checkpointIteration) {
+			writeCheckpoint(maxSolutions);
+		}
+		stats.elapsedNanos = System.nanoTime() - startNanos;
+		stats.commitSolveEvent(N, ships.length, bestScore, stopReason);
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//generates the first solution and sets the annealing up to spread over maxSolutions solutions
+	void prepare(int maxSolutions) {
+		
+		stats.reset();
+		startNanos = System.nanoTime();
+		iterations = 0;
+		//generate the first solution
+		initialSolution();			
+		//set initial flag to false as we have made the initial solution
+		initial = false;
+		
+		//set the ship counter to the number of ships we have
+		shipCounter = ships.length; 
+		//if we have <= 20 solutions do Simulated Annealing the whole time
+		if (maxSolutions <= 20) {
+			simACounter = maxSolutions;
+		}
+		//otherwise do it three quarters of the time
+		else {
+			simACounter = maxSolutions * 3 / 4;
+		} 
+		//set the rate of cooling
+		interval = simACounter / shipCounter;
+		intervalCounter = 0;
+		//a fixed temperature anneals for the whole budget, one ship at a time, and the ship counter never falls
+		if(schedule.getKind() == AnnealingSchedule.Kind.FIXED) {
+			shipCounter = 1;
+			interval = 0;
+		}
+		//start a real schedule at its starting temperature
+		annealSteps = simACounter;
+		annealStep = 0;
+		lastImprovement = 0;
+		temperature = schedule.getStartTemperature();
+		reheatTemperature = temperature;
+		reheatStep = 0;
+		climbing = false;
+		//Simulated Annealing
+		solutionCounter = 0;
+		//the initial solution is the first best board
+		bestImproved(0);
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//is there annealing left to do before the search moves on to hill climbing
+	boolean annealing() {
+		return simACounter > 1 || schedule.getKind() == AnnealingSchedule.Kind.FIXED;
+	}
+	
+	//one step of simulated annealing, moving the ship counter and any real schedule on afterwards
+	void annealingStep() {
+		
+		simulatedAnnealing(); 
+		intervalCounter++;
+		if(intervalCounter == interval) {
+			intervalCounter = 0;
+			//lower the temperature
+			shipCounter--;
+		}
+		if(schedule.isMetropolis()) {
+			coolDown();
+		}
+	}
+	
+	//one step of hill climbing
+	void climbingStep() {
+		
+		//the annealing may have wandered off, so climb from the best board it found
+		if(!climbing && schedule.isMetropolis()) {
+			restoreBest();
+		}
+		climbing = true;
+		hillClimbing();
+	}
+	
+	//moves a real schedule on by one step
+	private void coolDown() {
+		
+		annealStep++;
+		//the adaptive schedule reheats when the best score has stalled for a twentieth of the annealing
+		if(schedule.getKind() == AnnealingSchedule.Kind.ADAPTIVE 
+				&& annealStep - lastImprovement >= Math.max(100, annealSteps / 20)) {
+			reheatTemperature = Math.max(reheatTemperature / 2, schedule.getEndTemperature());
+			reheatStep = annealStep;
+			lastImprovement = annealStep;
+		}
+		temperature = schedule.temperature(reheatTemperature, annealStep - reheatStep, annealSteps - reheatStep);
+	}
+	
+	//should a move that changes the score by delta be kept
+	private boolean accept(int delta) {
+		
+		//a move that is no worse is always kept
+		if(delta <= 0) {
+			return true;
+		}
+		//otherwise only a real schedule keeps it, with probability exp(-delta / T)
+		if(!schedule.isMetropolis()) {
+			return false;
+		}
+		return rand.nextDouble() < Math.exp(-delta / temperature);
+	}
+	
+	//remembers the current solution board if it is at least as good as the best one
+	private void updateBest() {
+		
+		if(currentScore > bestScore) {
+			return;
+		}
+		boolean improved = currentScore < bestScore;
+		if(improved) {
+			lastImprovement = annealStep;
+		}
+		bestBoard.copyFrom(currentBoard);
+		bestScore = currentScore;
+		for(int i = 0; i < shipsOnBoard.size(); i++) {
+			bestPlacements[i] = shipsOnBoard.get(i).placement_;
+		}
+		//the step in progress has not been counted yet
+		if(improved) {
+			bestImproved(iterations + 1);
+		}
+	}
+	
+	//the best score has just improved on the given step: record it and tell the listener
+	private void bestImproved(long iteration) {
+		
+		long elapsed = System.nanoTime() - startNanos;
+		stats.recordBest(iteration, elapsed, bestScore);
+		if(listener != null) {
+			listener.improved(bestScore, iteration, elapsed, bestBoard.copy());
+		}
+	}
+	
+	//goes back to the best solution board, moving every ship back to where it was on it
+	private void restoreBest() {
+		
+		currentBoard.copyFrom(bestBoard);
+		Arrays.fill(rowCounts, 0);
+		Arrays.fill(colCounts, 0);
+		score = emptyScore();
+		for(int i = 0; i < shipsOnBoard.size(); i++) {
+			Ship ship = shipsOnBoard.get(i);
+			PlacementTable shipTable = tables[ship.size_];
+			ship.placement_ = bestPlacements[i];
+			ship.startPos_ = shipTable.start(ship.placement_);
+			ship.endPos_ = shipTable.end(ship.placement_);
+			ship.vertical_ = shipTable.isVertical(ship.placement_);
+			countShip(ship.startPos_, ship.endPos_, ship.vertical_, 1);
+		}
+		currentScore = score;
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//"BSCK", and the version of the checkpoint layout
+	private static final int CHECKPOINT_MAGIC = 0x4253434B;
+	private static final int CHECKPOINT_VERSION = 2;
+	
+	//writes the state between two steps to the checkpoint file: what it was made for, then the random number seed,
+	//the ships on the current and best boards, the ship shuffle, the annealing counters, the stats and the strategy.
+	//The boards and counts follow from the ships, so they are rebuilt rather than stored.
+	//It goes to a temporary file that is synced and then moved over the old checkpoint, so there always is a whole one
+	private void writeCheckpoint(int maxSolutions) {
+		
+		//carry on from a fresh seed, which a resumed search starts from too
+		long seed = rand.nextLong();
+		rand = new SplittableRandom(seed);
+		checkpointIteration = iterations;
+		Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+		try {
+			FileOutputStream file = new FileOutputStream(temp.toFile());
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+				out.writeInt(CHECKPOINT_MAGIC);
+				out.writeInt(CHECKPOINT_VERSION);
+				out.writeInt(N);
+				writeInts(out, puzzle.getShips());
+				writeInts(out, xHits);
+				writeInts(out, yHits);
+				writeInts(out, hintCodes());
+				out.writeInt(maxSolutions);
+				out.writeUTF(strategy.name());
+				out.writeUTF(schedule.getKind().name());
+				out.writeDouble(schedule.getStartTemperature());
+				out.writeDouble(schedule.getEndTemperature());
+				out.writeLong(seed);
+				out.writeBoolean(presolved);
+				int[] placements = new int[shipsOnBoard.size()];
+				for(int i = 0; i < placements.length; i++) {
+					placements[i] = shipsOnBoard.get(i).placement_;
+				}
+				writeInts(out, placements);
+				writeInts(out, bestPlacements);
+				writeInts(out, shipOrder);
+				out.writeInt(shipCounter);
+				out.writeInt(simACounter);
+				out.writeInt(interval);
+				out.writeInt(intervalCounter);
+				out.writeBoolean(climbing);
+				out.writeInt(annealStep);
+				out.writeInt(annealSteps);
+				out.writeInt(lastImprovement);
+				out.writeDouble(temperature);
+				out.writeDouble(reheatTemperature);
+				out.writeInt(reheatStep);
+				out.writeInt(solutionCounter);
+				out.writeLong(iterations);
+				out.writeLong(System.nanoTime() - startNanos);
+				stats.write(out);
+				strategy.writeState(out);
+				out.flush();
+				file.getFD().sync();
+			}
+			Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Could not write checkpoint " + checkpointFile, ex);
+		}
+	}
+	
+	//puts the search back in the state the checkpoint given to resume was written in
+	private void restoreCheckpoint(int maxSolutions) {
+		
+		try {
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(resumeFrom));
+			resumeFrom = null;
+			//resume has checked the header and the puzzle
+			in.readInt();
+			in.readInt();
+			in.readInt();
+			readInts(in);
+			readInts(in);
+			readInts(in);
+			readInts(in);
+			//the settings that shape the search must be the ones it was started with
+			if(in.readInt() != maxSolutions || !in.readUTF().equals(strategy.name()) 
+					|| !in.readUTF().equals(schedule.getKind().name()) 
+					|| in.readDouble() != schedule.getStartTemperature() || in.readDouble() != schedule.getEndTemperature()) {
+				throw new IllegalArgumentException("Checkpoint was written with a different budget, strategy or schedule");
+			}
+			rand = new SplittableRandom(in.readLong());
+			if(!in.readBoolean()) {
+				widenTables();
+			}
+			int[] placements = readInts(in);
+			int[] best = readInts(in);
+			int[] order = readInts(in);
+			if(placements.length != ships.length || best.length != ships.length || order.length != ships.length) {
+				throw new IOException("Checkpoint has the wrong number of ships");
+			}
+			//the ships in the order initialSolution places them, largest first
+			sortShips();
+			shipsOnBoard.clear();
+			for(int i = 0; i < ships.length; i++) {
+				PlacementTable shipTable = tables[ships[i]];
+				int p = placements[i];
+				if(p < 0 || p >= shipTable.size() || best[i] < 0 || best[i] >= shipTable.size()) {
+					throw new IOException("Checkpoint has a ship at a placement that does not exist");
+				}
+				shipsOnBoard.add(new Ship(shipTable.start(p), shipTable.end(p), ships[i], shipTable.isVertical(p), p));
+			}
+			shipsPlacedCount = ships.length;
+			currShip = ships.length;
+			initial = false;
+			//rebuild the current board, its counts and score, and the best board from the placements
+			currentBoard = Board.create(N, shipCells);
+			rowCounts = new int[N];
+			colCounts = new int[N];
+			score = emptyScore();
+			for(Ship ship : shipsOnBoard) {
+				tables[ship.size_].place(currentBoard, ship.placement_);
+				countShip(ship.startPos_, ship.endPos_, ship.vertical_, 1);
+			}
+			currentScore = score;
+			bestPlacements = best;
+			bestBoard = Board.create(N, shipCells);
+			for(int i = 0; i < ships.length; i++) {
+				tables[ships[i]].place(bestBoard, best[i]);
+			}
+			bestScore = calculateFitness(bestBoard);
+			System.arraycopy(order, 0, shipOrder, 0, order.length);
+			shipCounter = in.readInt();
+			simACounter = in.readInt();
+			interval = in.readInt();
+			intervalCounter = in.readInt();
+			climbing = in.readBoolean();
+			annealStep = in.readInt();
+			annealSteps = in.readInt();
+			lastImprovement = in.readInt();
+			temperature = in.readDouble();
+			reheatTemperature = in.readDouble();
+			reheatStep = in.readInt();
+			solutionCounter = in.readInt();
+			iterations = in.readLong();
+			checkpointIteration = iterations;
+			//the clock carries on from where it was
+			startNanos = System.nanoTime() - in.readLong();
+			stats.reset();
+			stats.read(in);
+			strategy.prepare(this, maxSolutions);
+			strategy.readState(in);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Could not read checkpoint", ex);
+		}
+		//a listener starts from the best board so far, as it would from the initial solution
+		if(listener != null) {
+			listener.improved(bestScore, iterations, System.nanoTime() - startNanos, bestBoard.copy());
+		}
+	}
+	
+	private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+		out.writeInt(values.length);
+		for(int i = 0; i < values.length; i++) {
+			out.writeInt(values[i]);
+		}
+	}
+	
+	//the puzzle's hints as one int each, cell and kind, so a checkpoint is only resumed with the same hints
+	private int[] hintCodes() {
+		Hint[] hints = puzzle.getHints();
+		int[] codes = new int[hints.length];
+		for(int i = 0; i < hints.length; i++) {
+			codes[i] = (hints[i].getRow() * N + hints[i].getCol()) * 8 + hints[i].getKind().ordinal();
+		}
+		return codes;
+	}
+	
+	private static int[] readInts(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if(length < 0 || length > in.available() / 4) {
+			throw new IOException("Checkpoint is cut short");
+		}
+		int[] values = new int[length];
+		for(int i = 0; i < length; i++) {
+			values[i] = in.readInt();
+		}
+		return values;
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//the puzzle this solver is working on
+	public Puzzle getPuzzle() {
+		return puzzle;
+	}
+	
+	//a copy of the best solution board found so far
+	public Board getBestBoard() {
+		return bestBoard.copy();
+	}
+	
+	//the score of the best solution board found so far
+	public int getScore() {
+		return bestScore;
+	}
+	
+	//how many solutions the last solve evaluated
+	public int getEvaluations() {
+		return solutionCounter;
+	}
+	
+	//the strategy the last solve used
+	public SearchStrategy getStrategy() {
+		return strategy;
+	}
+	
+	//how many steps the last solve took, identical boards included
+	public long getIterations() {
+		return iterations;
+	}
+	
+	//why the last solve stopped
+	public StopReason getStopReason() {
+		return stopReason;
+	}
+	
+	//what the last solve did
+	public SolverStats getStats() {
+		return stats;
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	// Attempt to improve the score of the board through Simulated Annealing
+	public void simulatedAnnealing() {
+		
+		long stepStart = System.nanoTime();
+		//get a copy of our currentBoard into the scratch board
+		Board currBoard = workBoard;
+		currBoard.copyFrom(currentBoard);
+		//pick shipCounter different ships at random by shuffling them to the front of shipOrder
+		int count = Math.max(0, Math.min(shipCounter, ships.length));
+		for(int i = 0; i < count; i++) {
+			int j = i + rand.nextInt(ships.length - i);
+			int randomShip = shipOrder[j];
+			shipOrder[j] = shipOrder[i];
+			shipOrder[i] = randomShip;
+			moving[randomShip] = true;
+		}
+		//list them from smallest to largest index
+		//this means the ships are ordered from largest to smallest - have to place largest first
+		movedCount = 0;
+		for(int i = 0; i < ships.length; i++) {
+			if(moving[i]) {
+				movedShips[movedCount++] = i;
+				moving[i] = false;
+			}
+		}
+		//loop through all the moved ships
+		for(int j = 0; j < movedCount; j++) {
+			//get each ship
+			Ship ship = shipsOnBoard.get(movedShips[j]);
+			//get the start, end, and direction of this ship
+			startPos = ship.startPos_;
+			endPos = ship.endPos_;
+			vertical = ship.vertical_;
+			table = tables[ship.size_];
+			placement = ship.placement_;
+			//remember where the moved ships were so the move can be undone if it is rejected
+			oldStart[j] = startPos;
+			oldEnd[j] = endPos;
+			oldVertical[j] = vertical;
+			oldPlacement[j] = ship.placement_;
+			//erase this ship from the current board
+			removeShip(currBoard);
+		}
+		//now that we have removed all those ships, we can add them back on
+		for(int i = 0; i < movedCount; i++) {
+			//get each ship
+			Ship ship = shipsOnBoard.get(movedShips[i]);
+			//get the direction and size of this ship
+			vertical = ship.vertical_;
+			shipSize = ship.size_;
+			int initialPlacement = ship.placement_;
+			//find a position to place the ship
+			initialShipPlacement();
+			//a real schedule starts looking somewhere random, otherwise the ships go straight back where they were
+			if(schedule.isMetropolis()) {
+				loadPlacement(rand.nextInt(table.size()));
+			}
+			//loop until ship is moved
+			shipPlaced = false;
+			int tried = 0;
+			while(shipPlaced != true) {				
+				//if the ship fits nowhere, even ignoring perimeters, give up on this move
+				if(tried++ > 2 * table.size()) {
+					ignorePerimeters = false;
+					abandonMove(i);
+					//the board has not changed, so this does not count as a solution
+					identicalSolution = true;
+					simACounter--;
+					stats.abandonedMoves++;
+					stats.placementNanos += System.nanoTime() - stepStart;
+					return;
+				}
+				//check if this position is valid
+				moveValid = isValid(currBoard);
+				if(moveValid == true) {
+					//place the ship down
+					currBoard = placeShip(currBoard);
+					shipPlaced = true;
+					ignorePerimeters = false;					
+					//update our ship positions and direction
+					ship.startPos_ = startPos;
+					ship.endPos_ = endPos;
+					ship.vertical_ = vertical;
+					ship.placement_ = placement;
+				}
+				else {
+					//get the next possible place we can place the ship
+					nextPossibleShipPos();
+					if(placement == initialPlacement) {
+						dropPerimeters();
+					}
+				}
+			}
+		}
+		long placed = System.nanoTime();
+		stats.placementNanos += placed - stepStart;
+		
+		//check if the solution is identical - doesn't count as a solution
+		identicalSolution = currBoard.equals(currentBoard);
+		simACounter--;
+		//the running score has been kept up to date as the ships moved, so no rescan is needed
+		int currBoardFitness = score;
+		int currentBoardFitness = currentScore;
+		//if the currBoard is better than or as good as currentBoard (or the schedule lets a worse one through),
+		//then currentBoard = currBoard
+		if(accept(currBoardFitness - currentBoardFitness)) {			
+			//swap the boards over rather than copying, the old one becomes the next scratch board
+			workBoard = currentBoard;
+			currentBoard = currBoard;					
+			currentScore = currBoardFitness;
+			stats.acceptedMoves++;
+			if(currBoardFitness > currentBoardFitness) {
+				stats.worseAccepted++;
+			}
+			updateBest();
+		}
+		else {
+			stats.rejectedMoves++;
+			abandonMove(movedCount);
+		}
+		stats.evaluationNanos += System.nanoTime() - placed;
+	}
+	
+	//undoes a move in which the first 'placed' of the moved ships have been put back down: their counts come off 
+	//their new cells and every moved ship goes back to its old position. The board itself was a copy and is dropped.
+	private void abandonMove(int placed) {
+		
+		for(int j = 0; j < movedCount; j++) {
+			Ship ship = shipsOnBoard.get(movedShips[j]);
+			if(j < placed) {
+				countShip(ship.startPos_, ship.endPos_, ship.vertical_, -1);
+			}
+			ship.startPos_ = oldStart[j];
+			ship.endPos_ = oldEnd[j];
+			ship.vertical_ = oldVertical[j];
+			ship.placement_ = oldPlacement[j];
+			countShip(ship.startPos_, ship.endPos_, ship.vertical_, 1);
+		}
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	// Attempt to improve the score of the board through Hill CLimbing
+	public void hillClimbing() {
+		
+		long stepStart = System.nanoTime();
+		//get a copy of our currentBoard into the scratch board
+		Board currBoard = workBoard;
+		currBoard.copyFrom(currentBoard);
+		//pick a random ship to move
+		int randomShip = rand.nextInt(shipsOnBoard.size());
+		Ship ship = shipsOnBoard.get(randomShip);
+		//get the start, end, size, and direction of this ship
+		startPos = ship.startPos_;
+		endPos = ship.endPos_;
+		vertical = ship.vertical_;
+		shipSize = ship.size_;
+		table = tables[shipSize];
+		placement = ship.placement_;
+		int initialPlacement = placement;
+		//erase this ship from the current board
+		removeShip(currBoard);
+		//loop until ship is moved
+		shipPlaced = false;
+		while(shipPlaced != true) {
+			//get the next possible place we can place the ship
+			nextPossibleShipPos();
+			if(placement == initialPlacement) {
+				dropPerimeters();
+			}
+			//check if this position is valid
+			moveValid = isValid(currBoard);
+			if(moveValid == true) {
+				//place the ship down
+				currBoard = placeShip(currBoard);
+				shipPlaced = true;
+				ignorePerimeters = false;
+				long placed = System.nanoTime();
+				stats.placementNanos += placed - stepStart;
+				//check if the solution is identical - doesn't count as a solution
+				identicalSolution = currBoard.equals(currentBoard);
+				//the running score has been kept up to date as the ship moved, so no rescan is needed
+				int currBoardFitness = score;
+				int currentBoardFitness = currentScore;
+				//if the currBoard is better than or as good as currentBoard, then currentBoard = currBoard
+				if(currBoardFitness <= currentBoardFitness) {				
+					//swap the boards over rather than copying, the old one becomes the next scratch board
+					workBoard = currentBoard;
+					currentBoard = currBoard;				
+					currentScore = currBoardFitness;
+					//update our ship positions and direction
+					ship.startPos_ = startPos;
+					ship.endPos_ = endPos;
+					ship.vertical_ = vertical;
+					ship.placement_ = placement;
+					stats.acceptedMoves++;
+					updateBest();
+				}
+				else {
+					//undo the move on the counts, the ship itself was never updated
+					countShip(startPos, endPos, vertical, -1);
+					countShip(ship.startPos_, ship.endPos_, ship.vertical_, 1);
+					stats.rejectedMoves++;
+				}
+				stats.evaluationNanos += System.nanoTime() - placed;
+			}
+		}		
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//the move primitives a strategy can build its own moves from: lift one ship off a copy of the current board,
+	//score placements for it against that board, then put it down at one of them or back where it was
+	
+	//how many ships are on the board
+	int shipCount() {
+		return shipsOnBoard.size();
+	}
+	
+	//the length of a ship on the board
+	int shipLength(int ship) {
+		return shipsOnBoard.get(ship).size_;
+	}
+	
+	//the placement a ship on the board is at
+	int shipPlacement(int ship) {
+		return shipsOnBoard.get(ship).placement_;
+	}
+	
+	//the score of the board the search is currently at
+	int currentScore() {
+		return currentScore;
+	}
+	
+	//the temperature a fixed schedule holds, which the replica exchange swaps between its replicas
+	void setTemperature(double temperature) {
+		this.temperature = temperature;
+		this.reheatTemperature = temperature;
+	}
+	
+	//a random number from 0 up to but not including bound, from this solver's own generator
+	int nextRandom(int bound) {
+		return rand.nextInt(bound);
+	}
+	
+	//takes a ship off a scratch copy of the current board, ready for placements to be scored
+	void liftShip(int ship) {
+		
+		liftStart = System.nanoTime();
+		workBoard.copyFrom(currentBoard);
+		lifted = shipsOnBoard.get(ship);
+		liftedPlacement = lifted.placement_;
+		shipSize = lifted.size_;
+		table = tables[shipSize];
+		ignorePerimeters = false;
+		loadPlacement(liftedPlacement);
+		removeShip(workBoard);
+	}
+	
+	//the score the board would have with the lifted ship at placement p, or -1 if the ship would touch another
+	int scoreWith(int p) {
+		
+		loadPlacement(p);
+		if(!isValid(workBoard)) {
+			return -1;
+		}
+		//add the ship to the counts just long enough to read the score off
+		countShip(startPos, endPos, vertical, 1);
+		int moved = score;
+		countShip(startPos, endPos, vertical, -1);
+		return moved;
+	}
+	
+	//puts the lifted ship down at placement p, which scoreWith must have allowed, and moves the search to that board
+	void dropShip(int p) {
+		
+		loadPlacement(p);
+		placeShip(workBoard);
+		lifted.startPos_ = startPos;
+		lifted.endPos_ = endPos;
+		lifted.vertical_ = vertical;
+		lifted.placement_ = p;
+		//no two placements of one length cover the same cells, so the board only stays the same if the ship does
+		identicalSolution = p == liftedPlacement;
+		//swap the boards over rather than copying, the old one becomes the next scratch board
+		Board swap = currentBoard;
+		currentBoard = workBoard;
+		workBoard = swap;
+		stats.placementNanos += System.nanoTime() - liftStart;
+		stats.acceptedMoves++;
+		if(score > currentScore) {
+			stats.worseAccepted++;
+		}
+		currentScore = score;
+		lifted = null;
+		updateBest();
+	}
+	
+	//puts the lifted ship back where it was, leaving the board as it is
+	void cancelLift() {
+		
+		loadPlacement(liftedPlacement);
+		countShip(startPos, endPos, vertical, 1);
+		identicalSolution = true;
+		stats.placementNanos += System.nanoTime() - liftStart;
+		stats.abandonedMoves++;
+		lifted = null;
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//the small moves a strategy can make straight on the current board, without copying it: move one or two ships
+	//to new placements, and keep the new board if the annealing accepts the change in score
+	
+	//the cell a ship on the board starts at
+	int shipStart(int ship) {
+		return shipsOnBoard.get(ship).startPos_;
+	}
+	
+	//does a ship on the board stand up
+	boolean shipVertical(int ship) {
+		return shipsOnBoard.get(ship).vertical_;
+	}
+	
+	//the placement of a ship of this length starting at cell and going this way, or -1 if its table has none
+	int placementOf(int length, int cell, boolean vert) {
+		return tables[length].indexOf(cell, vert);
+	}
+	
+	//gets a small move ready: once the annealing is over a real schedule climbs from the best board, 
+	//as climbingStep does
+	void beginMove() {
+		
+		if(!annealing() && !climbing) {
+			if(schedule.isMetropolis()) {
+				restoreBest();
+			}
+			climbing = true;
+		}
+	}
+	
+	//moves ship a to placement pa, and ship b to pb too unless b is -1. The ships' own cells come off the board and
+	//the counts, the new ones go on, and the running score gives the change, so the move costs O(ship length).
+	//While annealing the schedule decides whether a worse board is kept, after that only a board no worse is.
+	//Returns false, with nothing changed, if a placement is -1 or touches another ship
+	boolean moveShips(int a, int pa, int b, int pb) {
+		
+		long stepStart = System.nanoTime();
+		Ship first = shipsOnBoard.get(a);
+		Ship second = b < 0 ? null : shipsOnBoard.get(b);
+		int fromA = first.placement_;
+		int fromB = second == null ? -1 : second.placement_;
+		boolean fits = pa >= 0 && (second == null || pb >= 0);
+		if(fits) {
+			takeOff(first);
+			if(second != null) {
+				takeOff(second);
+			}
+			//each ship must be clear of the others, the one moved with it included
+			fits = !tables[first.size_].collides(currentBoard, pa, false);
+			if(fits) {
+				putOn(first, pa);
+				if(second != null) {
+					fits = !tables[second.size_].collides(currentBoard, pb, false);
+					if(fits) {
+						putOn(second, pb);
+					}
+					else {
+						takeOff(first);
+					}
+				}
+			}
+			if(!fits) {
+				putOn(first, fromA);
+				if(second != null) {
+					putOn(second, fromB);
+				}
+			}
+		}
+		if(!fits) {
+			identicalSolution = true;
+			stats.abandonedMoves++;
+			stats.placementNanos += System.nanoTime() - stepStart;
+			return false;
+		}
+		long placed = System.nanoTime();
+		stats.placementNanos += placed - stepStart;
+		
+		//the ships have moved, so this counts as a solution whether it is kept or not
+		identicalSolution = false;
+		int delta = score - currentScore;
+		boolean keep = climbing ? delta <= 0 : accept(delta);
+		if(!climbing) {
+			simACounter--;
+			if(schedule.isMetropolis()) {
+				coolDown();
+			}
+		}
+		if(keep) {
+			currentScore = score;
+			stats.acceptedMoves++;
+			if(delta > 0) {
+				stats.worseAccepted++;
+			}
+			updateBest();
+		}
+		else {
+			takeOff(first);
+			if(second != null) {
+				takeOff(second);
+			}
+			putOn(first, fromA);
+			if(second != null) {
+				putOn(second, fromB);
+			}
+			stats.rejectedMoves++;
+		}
+		stats.evaluationNanos += System.nanoTime() - placed;
+		return keep;
+	}
+	
+	//takes a ship off the current board and the counts
+	private void takeOff(Ship ship) {
+		tables[ship.size_].remove(currentBoard, ship.placement_);
+		countShip(ship.startPos_, ship.endPos_, ship.vertical_, -1);
+	}
+	
+	//puts a ship on the current board and the counts at placement p
+	private void putOn(Ship ship, int p) {
+		PlacementTable shipTable = tables[ship.size_];
+		shipTable.place(currentBoard, p);
+		ship.placement_ = p;
+		ship.startPos_ = shipTable.start(p);
+		ship.endPos_ = shipTable.end(p);
+		ship.vertical_ = shipTable.isVertical(p);
+		countShip(ship.startPos_, ship.endPos_, ship.vertical_, 1);
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//find a place to initially place a ship
+	public void initialShipPlacement() {	
+	
+		//decide where to attempt to stick the ship
+		table = tables[shipSize];
+		//the vertical placements come first in the table, followed by the horizontal ones
+		if(vertical == true) {
+			loadPlacement(0);
+		}
+		else {
+			loadPlacement(table.firstHorizontal());
+		}
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//make placement p of the current table the position of the ship to be placed
+	private void loadPlacement(int p) {
+		placement = p;
+		startPos = table.start(p);
+		endPos = table.end(p);
+		vertical = table.isVertical(p);
+	}
+	
+	//make placement p of the table for ships of this length the position of the ship to be placed,
+	//so the move primitives can be driven from outside a solve (the benchmarks do this)
+	void tryPlacement(int length, int p) {
+		shipSize = length;
+		table = tables[length];
+		loadPlacement(p);
+	}
+	
+	//how many placements there are for a ship of this length
+	int placementCount(int length) {
+		return tables[length].size();
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//order the ships in the ships array by size, largest first, using bubble sort
+	private void sortShips() {
+		
+		int length = ships.length;
+		int tempShip = 0;
+		for(int i = 0; i < length; i++) {
+			for(int j = 1; j < (length - i); j++) {
+				if(ships[j-1] < ships[j]) {
+					tempShip = ships[j - 1];
+					ships[j-1] = ships[j];
+					ships[j] = tempShip;
+				}
+			}
+		}
+	}
+	
+	//Generates a initial solution
+	public void initialSolution() {
+		
+		//order the ships in the ships array by size
+		sortShips();
+				
+		//generate the board
+		currentBoard = Board.create(N, shipCells);
+		//an empty board misses every hit in every row and column
+		rowCounts = new int[N];
+		colCounts = new int[N];
+		score = emptyScore();
+		
+		//set the direction to place the first ship (we will simply be alternating between the two)
+		vertical = true;
+		
+		//while there are still ships to place
+		while(shipsPlacedCount < ships.length) {
+			//get the ship size
+			shipSize = ships[currShip];
+			//reset flags
+			shipPlaced = false;			
+			//find a place to initially attempt to place the ship
+			initialShipPlacement();	
+			int initialPlacement = placement;
+			//while we haven't placed the ship down
+			while(shipPlaced != true) {					
+				//check if this move is valid
+				moveValid = isValid(currentBoard);				
+				//if this move is a valid move
+				if(moveValid == true) {						
+					//place the ship on the board
+					currentBoard = placeShip(currentBoard);					
+					//set the shipPlaced flag
+					shipPlaced = true;
+					//unset the ignorePerimeters flag
+					ignorePerimeters = false;
+					//increment the number of ships placed and our next ship counter
+					shipsPlacedCount++;
+					currShip++;
+					//change the next ships placement direction
+					if(vertical == true) {
+						vertical = false;
+					}
+					else {
+						vertical = true;
+					}
+				}				
+				//if this is not a valid move we need to put the ship elsewhere
+				else {
+					nextPossibleShipPos();
+					if(placement == initialPlacement) {
+						//round again with the perimeters already dropped: not even the ship's own cells are free
+						//anywhere in its table, as the presolve and the hints have pruned the tables too far for
+						//this way of filling the board. Start again with tables pruned on the hits alone
+						if(ignorePerimeters && presolved) {
+							widenTables();
+							initialSolution();
+							return;
+						}
+						dropPerimeters();
+					}
+				}	
+				
+			}
+		}
+		currentScore = score;
+		//the first solution is the best so far
+		bestBoard = currentBoard.copy();
+		bestScore = currentScore;
+		bestPlacements = new int[shipsOnBoard.size()];
+		for(int i = 0; i < shipsOnBoard.size(); i++) {
+			bestPlacements[i] = shipsOnBoard.get(i).placement_;
+		}
+	}
+    
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//goes back to tables pruned only on the hits, with no ships placed. The hints are then kept by the score alone
+	private void widenTables() {
+		tables = PlacementTable.build(ships, xHits, yHits);
+		presolved = false;
+		shipsOnBoard.clear();
+		shipsPlacedCount = 0;
+		currShip = 0;
+		ignorePerimeters = false;
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//find the next possible place to put the ship (DOES NOT CHECK VALIDITY)
+	//this is the next entry round the placement table, which wraps from the last row back to the first column
+	public void nextPossibleShipPos() {
+		
+		placement++;
+		if(placement == table.size()) {
+			placement = 0;
+		}
+		loadPlacement(placement);
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+		
+	
+	//places a ship on the board
+	public Board placeShip(Board board) {
+
+		//set the cells of the ship to 1, a word at a time on a Bitboard
+		table.place(board, placement);
+		//add the ship to the row and column counts
+		countShip(startPos, endPos, vertical, 1);
+		//create a new ship if this is the initial solution
+		if(initial == true) {
+			Ship toPlace = new Ship(startPos, endPos, shipSize, vertical, placement);
+			shipsOnBoard.add(toPlace);
+		}
+		//return the updated board
+		return board;
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//erases the ship at the current placement from the board
+	public void removeShip(Board board) {
+		
+		table.remove(board, placement);
+		//take the ship off the row and column counts
+		countShip(startPos, endPos, vertical, -1);
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//adds delta to the row and column counts of each cell of a ship, keeping the running score up to date
+	//only the rows and columns the ship touches are rescored, so this costs O(ship length) instead of O(N*N)
+	public void countShip(int start, int end, boolean vert, int delta) {
+		
+		int step = vert ? N : 1;
+		for(int i = start; i <= end; i+=step) {
+			int row = i / N;
+			int col = i % N;
+			//take off the old difference for this row and column, update the counts and add on the new difference
+			score -= Math.abs(yHits[row] - rowCounts[row]) + Math.abs(xHits[col] - colCounts[col]);
+			rowCounts[row] += delta;
+			colCounts[col] += delta;
+			score += Math.abs(yHits[row] - rowCounts[row]) + Math.abs(xHits[col] - colCounts[col]);
+			if(shipHints != null) {
+				if(shipHints.get(i)) {
+					score -= Hint.PENALTY * delta;
+				}
+				else if(waterHints.get(i)) {
+					score += Hint.PENALTY * delta;
+				}
+			}
+		}
+	}
+	
+	//the score of an empty board: every hit of every row and column missed, and every ship hint left empty
+	private int emptyScore() {
+		
+		int empty = 0;
+		for(int i = 0; i < N; i++) {
+			empty += yHits[i] + xHits[i];
+		}
+		for(Hint hint : puzzle.getHints()) {
+			if(hint.getKind().isShip()) {
+				empty += Hint.PENALTY;
+			}
+		}
+		return empty;
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+	
+	//checks if a ship placing is a valid move or not
+	//the ship and the water around it must all be empty, or just the ship's own cells when ignoring the perimeters
+	public boolean isValid(Board board) {
+		stats.validityProbes++;
+		if(table.collides(board, placement, ignorePerimeters)) {
+			stats.validityRejections++;
+			return false;
+		}
+		return true;
+	}
+	
+	//the ship has been right round its table without finding a place clear of the other ships' perimeters,
+	//so from now on only its own cells have to be free
+	private void dropPerimeters() {
+		if(!ignorePerimeters) {
+			stats.perimeterFallbacks++;
+			ignorePerimeters = true;
+		}
+	}
+	
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//calculates the fitness of a board (the score) from scratch
+	//the search itself uses the running score kept by countShip, this is only used to report the final score
+	public int calculateFitness(Board board) {
+		
+		int diffY = 0;
+		int diffX = 0;
+		//count the ship segments of every row and every column
+		board.rowCounts(fitnessRows);
+		board.colCounts(fitnessCols);
+		for (int i = 0; i < N; i++) {
+			//get the difference between the yHits value and the number of ship segments in that row
+			diffY+=Math.abs(yHits[i] - fitnessRows[i]); 
+			//get the difference between the xHits value and the number of ship segments in that column
+			diffX+=Math.abs(xHits[i] - fitnessCols[i]);
+		}
+		//return the total, with the penalty for each hint the board goes against
+		return (diffY + diffX + Hint.PENALTY * puzzle.hintViolations(board));
+	}
+ }
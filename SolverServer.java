@@ -0,0 +1,447 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *  Heuristic Algorithms
+ *  SolverServer.java
+ *  Keeps one warmed-up JVM solving puzzles sent to it over HTTP, so a caller no longer pays for JVM startup and
+ *	JIT warm-up on every solve. It only listens on the loopback address and uses nothing outside the JDK.
+ *	POST /solve takes one or more puzzles in the usual file format, hints and all (blank lines between them are ignored)
+ *	and answers one JSON line per puzzle, in order, with the score, evaluations, iterations, why the solve stopped,
+ *	the wall time and the board. These query parameters apply to every puzzle in the request:
+ *	 - budget: the maximum number of solutions to evaluate (--budget by default)
+ *	 - time-limit: seconds from when the request arrives to its deadline, no more than --time-limit
+ *	 - max-iterations, seed and strategy: as for BattleShip
+ *	GET /health answers how many puzzles are being solved and how many are waiting.
+ *	Each request is handled on a virtual thread when the JVM has them, and on a pooled thread otherwise.
+ *	At most --workers puzzles are solved at once and at most --queue more wait for a turn; a request that
+ *	does not fit is turned away at once with 503, and a puzzle still waiting at its deadline gets an error line.
+ *	Time spent waiting counts against the deadline, so a request never takes much longer than its time limit.
+ *	With --cache file the puzzles share a SolutionCache, which is saved back to the file when the server stops.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ public class SolverServer {
+
+	//the largest request body read, enough for a few puzzles of several thousand cells a side
+	private static final int MAX_BODY = 16 << 20;
+	//what a request body must hold, for the error when it does not
+	private static final String PUZZLE_LINES = 
+		"Each puzzle must be three lines: the ships, the xHits and the yHits, then optionally a line of hints";
+
+	//the number of solutions and the seconds a request gets when it does not say
+	private final int budget;
+	private final long timeLimitNanos;
+	//how many puzzles are solved at once, and how many may wait on top of those
+	private final int workers;
+	private final int queue;
+	//a permit for every puzzle solving or waiting, and one for every puzzle solving
+	private final Semaphore admitted;
+	private final Semaphore solving;
+	//runs each request, and each puzzle of a request with more than one, and whether it does so on virtual threads
+	private final ExecutorService executor;
+	private final boolean virtualThreads;
+	//the cache the puzzles share, or null
+	private final SolutionCache cache;
+	//how many puzzles have been answered and how many turned away
+	private final AtomicLong answered = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private HttpServer server;
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	public SolverServer(int budget, long timeLimitNanos, int workers, int queue, SolutionCache cache) {
+		if(workers < 1 || queue < 0) {
+			throw new IllegalArgumentException("Number of workers must be at least 1 and the queue at least 0");
+		}
+		if(timeLimitNanos <= 0) {
+			throw new IllegalArgumentException("Time limit must be more than 0 seconds");
+		}
+		this.budget = budget;
+		this.timeLimitNanos = timeLimitNanos;
+		this.workers = workers;
+		this.queue = queue;
+		this.admitted = new Semaphore(workers + queue);
+		//fair, so puzzles are solved in the order they arrived
+		this.solving = new Semaphore(workers, true);
+		ExecutorService virtual = virtualThreadExecutor();
+		this.virtualThreads = virtual != null;
+		this.executor = virtual != null ? virtual : Executors.newCachedThreadPool(task -> {
+			Thread thread = new Thread(task, "solver");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.cache = cache;
+	}
+
+	//an executor starting a virtual thread per task, or null on a JVM without them (before Java 21).
+	//It is looked up by reflection so the server still builds and runs on older JVMs, with a pool of daemon threads
+	private static ExecutorService virtualThreadExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		}
+		catch (ReflectiveOperationException ex) {
+			return null;
+		}
+	}
+
+	//does this server run its requests on virtual threads
+	public boolean usesVirtualThreads() {
+		return virtualThreads;
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//starts listening on the loopback address, port 0 picks a free port
+	public void start(int port) throws IOException {
+
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		server.createContext("/solve", this::handleSolve);
+		server.createContext("/health", this::handleHealth);
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	//the port the server is listening on
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	//stops accepting requests, gives those under way up to a second to finish, and saves the cache
+	public void stop(Path cacheFile) throws IOException {
+		server.stop(1);
+		executor.shutdownNow();
+		if(cache != null && cacheFile != null) {
+			cache.save(cacheFile);
+		}
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	private void handleHealth(HttpExchange exchange) throws IOException {
+
+		int inFlight = workers + queue - admitted.availablePermits();
+		int running = workers - solving.availablePermits();
+		respond(exchange, 200, "application/json", String.format(Locale.ROOT,
+			"{\"status\":\"ok\",\"solving\":%d,\"waiting\":%d,\"answered\":%d,\"rejected\":%d,\"virtualThreads\":%b}",
+			running, Math.max(0, inFlight - running), answered.get(), rejected.get(), usesVirtualThreads()));
+	}
+
+	private void handleSolve(HttpExchange exchange) throws IOException {
+
+		long arrived = System.nanoTime();
+		if(!exchange.getRequestMethod().equals("POST")) {
+			exchange.getResponseHeaders().set("Allow", "POST");
+			respond(exchange, 405, "application/json", error("Puzzles must be sent with POST"));
+			return;
+		}
+		//read the options and the puzzles, anything wrong with them is the caller's mistake
+		List<Puzzle> puzzles;
+		Options options;
+		try {
+			options = new Options(query(exchange), budget, timeLimitNanos);
+			puzzles = parsePuzzles(readBody(exchange.getRequestBody()));
+		}
+		catch (IOException | IllegalArgumentException ex) {
+			respond(exchange, 400, "application/json", error(ex.getMessage()));
+			return;
+		}
+		if(puzzles.size() > workers + queue) {
+			respond(exchange, 413, "application/json",
+				error("At most " + (workers + queue) + " puzzles can be sent in one request"));
+			return;
+		}
+		//admission control: every puzzle needs a place solving or waiting, or the whole request is turned away
+		if(!admitted.tryAcquire(puzzles.size())) {
+			rejected.addAndGet(puzzles.size());
+			exchange.getResponseHeaders().set("Retry-After", "1");
+			respond(exchange, 503, "application/json", error("Server is busy, try again shortly"));
+			return;
+		}
+		long deadline = arrived + options.timeLimitNanos;
+		String[] lines = new String[puzzles.size()];
+		try {
+			if(puzzles.size() == 1) {
+				lines[0] = solve(puzzles.get(0), options, deadline);
+			}
+			else {
+				//the puzzles of a batch wait for a solver side by side, each on a thread of its own
+				List<Future<String>> results = new ArrayList<Future<String>>();
+				for(Puzzle puzzle : puzzles) {
+					results.add(executor.submit(() -> solve(puzzle, options, deadline)));
+				}
+				for(int i = 0; i < lines.length; i++) {
+					lines[i] = results.get(i).get();
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			respond(exchange, 503, "application/json", error("Server is stopping"));
+			return;
+		}
+		catch (ExecutionException ex) {
+			//solve reports its own failures, so this can only be an unexpected error
+			respond(exchange, 500, "application/json", error(String.valueOf(ex.getCause())));
+			return;
+		}
+		finally {
+			admitted.release(puzzles.size());
+		}
+		answered.addAndGet(puzzles.size());
+		StringBuilder body = new StringBuilder();
+		for(String line : lines) {
+			body.append(line).append('\n');
+		}
+		respond(exchange, 200, puzzles.size() == 1 ? "application/json" : "application/x-ndjson", body.toString());
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//waits for a turn, then solves one puzzle until its budget is used or the request's deadline, as a JSON line
+	private String solve(Puzzle puzzle, Options options, long deadline) throws InterruptedException {
+
+		long start = System.nanoTime();
+		//a puzzle seen before with at least this budget, or solved, is answered from the cache without waiting
+		Board cached = cache == null ? null : cache.get(puzzle, options.budget);
+		if(cached != null) {
+			return String.format(Locale.ROOT, "{\"score\":%d,\"cached\":true,\"timeMs\":%.3f,\"board\":%s}",
+				puzzle.score(cached), (System.nanoTime() - start) / 1e6, Json.board(cached, puzzle.size()));
+		}
+		if(!solving.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+			return String.format(Locale.ROOT, "{\"error\":\"Deadline passed while waiting for a solver\",\"timeMs\":%.3f}",
+				(System.nanoTime() - start) / 1e6);
+		}
+		try {
+			Solver solver = options.seed == null ? new Solver(puzzle) : new Solver(puzzle, options.seed);
+			solver.setStrategy(SearchStrategy.parse(options.strategy));
+			//what is left of the request's time, at least a nanosecond so the solve still produces a board
+			solver.setTimeLimit(Math.max(1, deadline - System.nanoTime()));
+			solver.setMaxIterations(options.maxIterations);
+			solver.solve(options.budget);
+			Board bestBoard = solver.getBestBoard();
+			int score = solver.calculateFitness(bestBoard);
+			if(cache != null) {
+				cache.put(puzzle, bestBoard, score, options.budget);
+			}
+			return String.format(Locale.ROOT, "{\"score\":%d,\"evaluations\":%d,\"iterations\":%d,\"stop\":%s,"
+				+ "\"timeMs\":%.3f,\"board\":%s}",
+				score, solver.getEvaluations(), solver.getIterations(),
+				Json.quote(solver.getStopReason().name().toLowerCase(Locale.ROOT)), (System.nanoTime() - start) / 1e6,
+				Json.board(bestBoard, puzzle.size()));
+		}
+		catch (RuntimeException ex) {
+			return String.format(Locale.ROOT, "{\"error\":%s,\"timeMs\":%.3f}",
+				Json.quote(String.valueOf(ex.getMessage())), (System.nanoTime() - start) / 1e6);
+		}
+		finally {
+			solving.release();
+		}
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//the puzzles in a request body, three lines each and a fourth if it lists hints, skipping blank lines
+	static List<Puzzle> parsePuzzles(String body) throws IOException {
+
+		List<String> lines = new ArrayList<String>();
+		for(String line : body.split("\n")) {
+			line = line.trim();
+			if(!line.isEmpty()) {
+				lines.add(line);
+			}
+		}
+		List<Puzzle> puzzles = new ArrayList<Puzzle>();
+		for(int i = 0; i < lines.size(); ) {
+			if(i + 3 > lines.size() || Puzzle.isHintLine(lines.get(i))) {
+				throw new IllegalArgumentException(PUZZLE_LINES);
+			}
+			BufferedReader br = new BufferedReader(new StringReader(lines.get(i) + "\n" + lines.get(i + 1) + "\n" 
+				+ lines.get(i + 2)));
+			Puzzle puzzle = Puzzle.read(br);
+			i += 3;
+			if(i < lines.size() && Puzzle.isHintLine(lines.get(i))) {
+				puzzle = puzzle.withHints(Puzzle.readHints(lines.get(i++)));
+			}
+			puzzles.add(puzzle);
+		}
+		if(puzzles.isEmpty()) {
+			throw new IllegalArgumentException(PUZZLE_LINES);
+		}
+		return puzzles;
+	}
+
+	//the request body as text, refusing one longer than MAX_BODY
+	private static String readBody(InputStream in) throws IOException {
+
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int n;
+		while((n = in.read(buffer)) > 0) {
+			body.write(buffer, 0, n);
+			if(body.size() > MAX_BODY) {
+				throw new IllegalArgumentException("Request body is larger than " + MAX_BODY + " bytes");
+			}
+		}
+		return body.toString(StandardCharsets.UTF_8);
+	}
+
+	//the query parameters of a request
+	private static Map<String, String> query(HttpExchange exchange) {
+
+		Map<String, String> params = new HashMap<String, String>();
+		String query = exchange.getRequestURI().getRawQuery();
+		if(query == null) {
+			return params;
+		}
+		for(String pair : query.split("&")) {
+			int eq = pair.indexOf('=');
+			if(eq > 0) {
+				params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+					URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+			}
+		}
+		return params;
+	}
+
+	private static String error(String message) {
+		return "{\"error\":" + Json.quote(String.valueOf(message)) + "}\n";
+	}
+
+	private static void respond(HttpExchange exchange, int status, String type, String body) throws IOException {
+
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", type);
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//the settings one request solves its puzzles with
+	private static final class Options {
+		private final int budget;
+		private final long timeLimitNanos;
+		private final long maxIterations;
+		private final Long seed;
+		private final String strategy;
+
+		Options(Map<String, String> params, int defaultBudget, long maxTimeLimitNanos) {
+			budget = params.containsKey("budget") ? Integer.parseInt(params.get("budget")) : defaultBudget;
+			if(budget < 1) {
+				throw new IllegalArgumentException("Budget must be at least 1");
+			}
+			long nanos = maxTimeLimitNanos;
+			if(params.containsKey("time-limit")) {
+				double seconds = Double.parseDouble(params.get("time-limit"));
+				if(seconds <= 0) {
+					throw new IllegalArgumentException("Time limit must be more than 0 seconds");
+				}
+				nanos = Math.min(nanos, (long) (seconds * 1e9));
+			}
+			timeLimitNanos = nanos;
+			maxIterations = params.containsKey("max-iterations") ? Long.parseLong(params.get("max-iterations")) : 0;
+			if(maxIterations < 0) {
+				throw new IllegalArgumentException("Maximum iterations cannot be negative");
+			}
+			seed = params.containsKey("seed") ? Long.valueOf(params.get("seed")) : null;
+			strategy = params.getOrDefault("strategy", "annealing");
+			//check the name now so a bad one is the caller's mistake
+			SearchStrategy.parse(strategy);
+		}
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	public static void main(String[] args) {
+
+		int port = 8080;
+		int workers = Runtime.getRuntime().availableProcessors();
+		int queue = 64;
+		int budget = 100000;
+		double timeLimit = 10;
+		Path cacheFile = null;
+		try {
+			//read in the options
+			for(int i = 0; i < args.length; i++) {
+				switch(args[i]) {
+					case "--port":
+						port = Integer.parseInt(BattleShip.optionValue(args, i++));
+						break;
+					case "--workers":
+						workers = Integer.parseInt(BattleShip.optionValue(args, i++));
+						break;
+					case "--queue":
+						queue = Integer.parseInt(BattleShip.optionValue(args, i++));
+						break;
+					case "--budget":
+						budget = Integer.parseInt(BattleShip.optionValue(args, i++));
+						break;
+					case "--time-limit":
+						timeLimit = Double.parseDouble(BattleShip.optionValue(args, i++));
+						break;
+					case "--cache":
+						cacheFile = Paths.get(BattleShip.optionValue(args, i++));
+						break;
+					default:
+						throw new IllegalArgumentException("Unknown option " + args[i] + "\nUsage: java SolverServer "
+							+ "[--port P] [--workers K] [--queue Q] [--budget N] [--time-limit seconds] [--cache file]");
+				}
+			}
+			SolutionCache cache = null;
+			if(cacheFile != null) {
+				cache = new SolutionCache(SolutionCache.DEFAULT_ENTRIES, SolutionCache.DEFAULT_BYTES);
+				if(Files.exists(cacheFile)) {
+					cache.load(cacheFile);
+				}
+			}
+			SolverServer server = new SolverServer(budget, (long) (timeLimit * 1e9), workers, queue, cache);
+			server.start(port);
+			Path saveTo = cacheFile;
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				try {
+					server.stop(saveTo);
+				}
+				catch (IOException ex) {
+					System.err.println("Could not save the cache: " + ex.getMessage());
+				}
+			}));
+			System.err.println("Listening on http://127.0.0.1:" + server.getPort() + "/solve with " + workers
+				+ " workers" + (server.usesVirtualThreads() ? " on virtual threads" : ""));
+		}
+		catch (IOException | IllegalArgumentException ex) {
+			System.err.println(ex.getMessage());
+			System.exit(1);
+		}
+	}
+ }
@@ -0,0 +1,277 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ *  Heuristic Algorithms
+ *  SolverStats.java
+ *  What a Solver did during its last solve: how many steps it took and how many of those left the board unchanged,
+ *	how often isValid was asked and said no, how often a ship had to fall back to ignoring the perimeters,
+ *	how many moves were kept, and how the time split between finding places for the moved ships (which keeps
+ *	the score up to date as it goes) and evaluating the result (the identical check, acceptance and keeping the best).
+ *	The best score is recorded with its step and time every time it improves.
+ *	The same figures are sent to Java Flight Recorder as a Solve event per solve and an Improvement event
+ *	per new best score, so a recording of a production run shows them without attaching a profiler.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ public final class SolverStats {
+
+	//steps that evaluated a new solution, and steps that left the board unchanged
+	long countedIterations, identicalIterations;
+	//calls to isValid, and how many of them found the ship touching another
+	long validityProbes, validityRejections;
+	//how many times a ship went right round its table and had to ignore the perimeters
+	long perimeterFallbacks;
+	//moves kept, moves thrown away, kept moves that made the score worse, and moves given up because a ship fit nowhere
+	long acceptedMoves, rejectedMoves, worseAccepted, abandonedMoves;
+	//time spent placing the moved ships and evaluating the result, and the time the whole solve took
+	long placementNanos, evaluationNanos, elapsedNanos;
+	//each improvement of the best score: the step it happened on, the time since the solve started and the score
+	private long[] bestIterations = new long[16];
+	private long[] bestNanos = new long[16];
+	private int[] bestScores = new int[16];
+	private int bestCount;
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//forget everything, ready for the next solve
+	void reset() {
+		countedIterations = identicalIterations = 0;
+		validityProbes = validityRejections = 0;
+		perimeterFallbacks = 0;
+		acceptedMoves = rejectedMoves = worseAccepted = abandonedMoves = 0;
+		placementNanos = evaluationNanos = elapsedNanos = 0;
+		bestCount = 0;
+	}
+
+	//writes the figures so far to a checkpoint
+	void write(DataOutput out) throws IOException {
+		long[] counters = {countedIterations, identicalIterations, validityProbes, validityRejections, perimeterFallbacks,
+			acceptedMoves, rejectedMoves, worseAccepted, abandonedMoves, placementNanos, evaluationNanos};
+		for(long counter : counters) {
+			out.writeLong(counter);
+		}
+		out.writeInt(bestCount);
+		for(int i = 0; i < bestCount; i++) {
+			out.writeLong(bestIterations[i]);
+			out.writeLong(bestNanos[i]);
+			out.writeInt(bestScores[i]);
+		}
+	}
+
+	//reads back the figures written by write
+	void read(DataInput in) throws IOException {
+		countedIterations = in.readLong();
+		identicalIterations = in.readLong();
+		validityProbes = in.readLong();
+		validityRejections = in.readLong();
+		perimeterFallbacks = in.readLong();
+		acceptedMoves = in.readLong();
+		rejectedMoves = in.readLong();
+		worseAccepted = in.readLong();
+		abandonedMoves = in.readLong();
+		placementNanos = in.readLong();
+		evaluationNanos = in.readLong();
+		elapsedNanos = 0;
+		bestCount = in.readInt();
+		int capacity = Math.max(16, bestCount);
+		bestIterations = new long[capacity];
+		bestNanos = new long[capacity];
+		bestScores = new int[capacity];
+		for(int i = 0; i < bestCount; i++) {
+			bestIterations[i] = in.readLong();
+			bestNanos[i] = in.readLong();
+			bestScores[i] = in.readInt();
+		}
+	}
+
+	//records a new best score, and sends it to the flight recorder if it is recording
+	void recordBest(long iteration, long nanos, int score) {
+
+		if(bestCount == bestScores.length) {
+			bestIterations = Arrays.copyOf(bestIterations, bestCount * 2);
+			bestNanos = Arrays.copyOf(bestNanos, bestCount * 2);
+			bestScores = Arrays.copyOf(bestScores, bestCount * 2);
+		}
+		bestIterations[bestCount] = iteration;
+		bestNanos[bestCount] = nanos;
+		bestScores[bestCount] = score;
+		bestCount++;
+		if(!recording()) {
+			return;
+		}
+		ImprovementEvent event = new ImprovementEvent();
+		if(event.shouldCommit()) {
+			event.iteration = iteration;
+			event.score = score;
+			event.commit();
+		}
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	public long getCountedIterations() {
+		return countedIterations;
+	}
+
+	public long getIdenticalIterations() {
+		return identicalIterations;
+	}
+
+	public long getValidityProbes() {
+		return validityProbes;
+	}
+
+	public long getValidityRejections() {
+		return validityRejections;
+	}
+
+	public long getPerimeterFallbacks() {
+		return perimeterFallbacks;
+	}
+
+	public long getAcceptedMoves() {
+		return acceptedMoves;
+	}
+
+	public long getRejectedMoves() {
+		return rejectedMoves;
+	}
+
+	//the share of the moves that were evaluated and kept, 0 if there were none
+	public double getAcceptanceRate() {
+		long moves = acceptedMoves + rejectedMoves;
+		return moves == 0 ? 0 : (double) acceptedMoves / moves;
+	}
+
+	public long getPlacementNanos() {
+		return placementNanos;
+	}
+
+	public long getEvaluationNanos() {
+		return evaluationNanos;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//everything as a JSON object
+	public String toJson() {
+
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format(Locale.ROOT, "{\"iterations\":{\"counted\":%d,\"identical\":%d},"
+			+ "\"isValid\":{\"probes\":%d,\"rejections\":%d},\"perimeterFallbacks\":%d,"
+			+ "\"moves\":{\"accepted\":%d,\"rejected\":%d,\"worseAccepted\":%d,\"abandoned\":%d,\"acceptanceRate\":%.4f},"
+			+ "\"timeMs\":{\"total\":%.3f,\"placement\":%.3f,\"evaluation\":%.3f},\"bestScores\":[",
+			countedIterations, identicalIterations, validityProbes, validityRejections, perimeterFallbacks,
+			acceptedMoves, rejectedMoves, worseAccepted, abandonedMoves, getAcceptanceRate(),
+			elapsedNanos / 1e6, placementNanos / 1e6, evaluationNanos / 1e6));
+		for(int i = 0; i < bestCount; i++) {
+			sb.append(i > 0 ? "," : "").append(String.format(Locale.ROOT, "{\"iteration\":%d,\"timeMs\":%.3f,\"score\":%d}",
+				bestIterations[i], bestNanos[i] / 1e6, bestScores[i]));
+		}
+		return sb.append("]}").toString();
+	}
+
+	//the first use of an event class sets up the flight recorder's machinery for it, which takes long enough to
+	//hold up a solve, so the events are left alone until a recording has been started
+	private static boolean recording() {
+		return FlightRecorder.isInitialized();
+	}
+
+	//sends the totals for a finished solve to the flight recorder if it is recording
+	void commitSolveEvent(int boardSize, int ships, int score, Solver.StopReason stopReason) {
+
+		if(!recording()) {
+			return;
+		}
+		SolveEvent event = new SolveEvent();
+		if(event.shouldCommit()) {
+			event.boardSize = boardSize;
+			event.ships = ships;
+			event.score = score;
+			event.stopReason = stopReason.name();
+			event.countedIterations = countedIterations;
+			event.identicalIterations = identicalIterations;
+			event.validityProbes = validityProbes;
+			event.validityRejections = validityRejections;
+			event.perimeterFallbacks = perimeterFallbacks;
+			event.acceptedMoves = acceptedMoves;
+			event.rejectedMoves = rejectedMoves;
+			event.elapsedNanos = elapsedNanos;
+			event.placementNanos = placementNanos;
+			event.evaluationNanos = evaluationNanos;
+			event.commit();
+		}
+	}
+ }
+
+ // -------------------------------------------------------------------------------------------------------------------
+
+ //The flight recorder event for one solve, committed when it finishes
+ @Name("battleship.Solve")
+ @Label("Solve")
+ @Category("Battleship")
+ @Description("One Solver.solve and its search statistics")
+ class SolveEvent extends Event {
+ 	@Label("Board Size")
+ 	int boardSize;
+ 	@Label("Ships")
+ 	int ships;
+ 	@Label("Score")
+ 	int score;
+ 	@Label("Stop Reason")
+ 	String stopReason;
+ 	@Label("Counted Iterations")
+ 	long countedIterations;
+ 	@Label("Identical Iterations")
+ 	long identicalIterations;
+ 	@Label("Validity Probes")
+ 	long validityProbes;
+ 	@Label("Validity Rejections")
+ 	long validityRejections;
+ 	@Label("Perimeter Fallbacks")
+ 	long perimeterFallbacks;
+ 	@Label("Accepted Moves")
+ 	long acceptedMoves;
+ 	@Label("Rejected Moves")
+ 	long rejectedMoves;
+ 	@Label("Elapsed Time")
+ 	@Timespan(Timespan.NANOSECONDS)
+ 	long elapsedNanos;
+ 	@Label("Placement Time")
+ 	@Timespan(Timespan.NANOSECONDS)
+ 	long placementNanos;
+ 	@Label("Evaluation Time")
+ 	@Timespan(Timespan.NANOSECONDS)
+ 	long evaluationNanos;
+ }
+
+ //The flight recorder event for each improvement of the best score
+ @Name("battleship.Improvement")
+ @Label("Improvement")
+ @Category("Battleship")
+ @Description("The best score of a solve improved")
+ class ImprovementEvent extends Event {
+ 	@Label("Iteration")
+ 	long iteration;
+ 	@Label("Score")
+ 	int score;
+ }
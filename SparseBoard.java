@@ -0,0 +1,284 @@
+import java.util.Arrays;
+
+/**
+ *  Heuristic Algorithms
+ *  SparseBoard.java
+ *  A board that keeps only its ship cells, for huge boards with few ships on them where a Bitboard would be
+ *	almost all water. The cells are held in an int array used as a hash set with open addressing: a cell goes
+ *	in the first free slot from where it hashes to, and when one is taken out the cells after it are moved back
+ *	into the gap so no slot ever has to be marked as deleted. The table is kept at most half full, so a lookup
+ *	is a probe or two. The number of ship cells in every row and column is kept up to date as cells are set and
+ *	cleared, so the counts behind the score cost O(N) however big the board.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ public final class SparseBoard implements Board {
+
+	//a slot with no cell in it
+	private static final int EMPTY = -1;
+	//the smallest table there is
+	private static final int MIN_SLOTS = 16;
+
+	//the length of the board
+	private final int N;
+	//the ship cells, each in the first free slot from where it hashes to, and how many there are
+	private int[] slots;
+	private int count;
+	//the number of ship cells in each row and each column
+	private final int[] rowCounts;
+	private final int[] colCounts;
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//create an empty N by N board with room for about cells ship cells before the table has to grow
+	public SparseBoard(int N, long cells) {
+		this.N = N;
+		this.slots = new int[slotsFor(cells)];
+		Arrays.fill(slots, EMPTY);
+		this.rowCounts = new int[N];
+		this.colCounts = new int[N];
+	}
+
+	//create a copy of a board
+	public SparseBoard(SparseBoard board) {
+		this.N = board.N;
+		this.slots = board.slots.clone();
+		this.count = board.count;
+		this.rowCounts = board.rowCounts.clone();
+		this.colCounts = board.colCounts.clone();
+	}
+
+	//the size of table that holds this many cells at most half full
+	private static int slotsFor(long cells) {
+		long slots = MIN_SLOTS;
+		while(slots < cells * 2) {
+			slots *= 2;
+		}
+		if(slots > 1 << 30) {
+			throw new IllegalArgumentException("Too many ship cells for a sparse board: " + cells);
+		}
+		return (int) slots;
+	}
+
+	//about how many bytes a board of this size with this many ship cells takes
+	public static long bytes(int N, long cells) {
+		return 4L * slotsFor(Math.min(cells, 1L << 29)) + 8L * N;
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//the slot holding the cell, or the free slot where it would go
+	private int slot(int cell) {
+
+		int mask = slots.length - 1;
+		int i = home(cell, mask);
+		while(slots[i] != EMPTY && slots[i] != cell) {
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+	//the slot a cell hashes to, spreading cells next to each other over the table
+	private static int home(int cell, int mask) {
+		int h = cell * 0x9e3779b9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	//doubles the table, putting every cell back in
+	private void grow() {
+
+		int[] old = slots;
+		slots = new int[old.length * 2];
+		Arrays.fill(slots, EMPTY);
+		for(int cell : old) {
+			if(cell != EMPTY) {
+				slots[slot(cell)] = cell;
+			}
+		}
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	@Override
+	public int size() {
+		return N;
+	}
+
+	@Override
+	public boolean get(int cell) {
+		return slots[slot(cell)] != EMPTY;
+	}
+
+	@Override
+	public boolean get(int row, int col) {
+		return get(row * N + col);
+	}
+
+	@Override
+	public void set(int cell) {
+
+		int i = slot(cell);
+		if(slots[i] != EMPTY) {
+			return;
+		}
+		slots[i] = cell;
+		count++;
+		rowCounts[cell / N]++;
+		colCounts[cell % N]++;
+		if(count * 2 > slots.length) {
+			grow();
+		}
+	}
+
+	@Override
+	public void clear(int cell) {
+
+		int i = slot(cell);
+		if(slots[i] == EMPTY) {
+			return;
+		}
+		count--;
+		rowCounts[cell / N]--;
+		colCounts[cell % N]--;
+		//move back every cell after the gap that could have gone in it, until a free slot ends the run
+		int mask = slots.length - 1;
+		int j = i;
+		while(true) {
+			j = (j + 1) & mask;
+			if(slots[j] == EMPTY) {
+				break;
+			}
+			int k = home(slots[j], mask);
+			//the cell at j stays if its home is after the gap at i, going round the table, and not after j
+			boolean stays = i <= j ? (i < k && k <= j) : (i < k || k <= j);
+			if(!stays) {
+				slots[i] = slots[j];
+				i = j;
+			}
+		}
+		slots[i] = EMPTY;
+	}
+
+	@Override
+	public int rowCount(int row) {
+		return rowCounts[row];
+	}
+
+	@Override
+	public void rowCounts(int[] counts) {
+		System.arraycopy(rowCounts, 0, counts, 0, N);
+	}
+
+	@Override
+	public void colCounts(int[] counts) {
+		System.arraycopy(colCounts, 0, counts, 0, N);
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	@Override
+	public boolean anyInRect(int rowFrom, int rowTo, int colFrom, int colTo) {
+
+		for(int row = rowFrom; row <= rowTo; row++) {
+			//a row with no ships in it has nothing to look up
+			if(rowCounts[row] == 0) {
+				continue;
+			}
+			for(int col = colFrom; col <= colTo; col++) {
+				if(get(row * N + col)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void setRect(int rowFrom, int rowTo, int colFrom, int colTo) {
+
+		for(int row = rowFrom; row <= rowTo; row++) {
+			for(int col = colFrom; col <= colTo; col++) {
+				set(row * N + col);
+			}
+		}
+	}
+
+	@Override
+	public void clearRect(int rowFrom, int rowTo, int colFrom, int colTo) {
+
+		for(int row = rowFrom; row <= rowTo; row++) {
+			for(int col = colFrom; col <= colTo; col++) {
+				clear(row * N + col);
+			}
+		}
+	}
+
+	@Override
+	public void clearAll() {
+		Arrays.fill(slots, EMPTY);
+		Arrays.fill(rowCounts, 0);
+		Arrays.fill(colCounts, 0);
+		count = 0;
+	}
+
+	@Override
+	public void copyFrom(Board board) {
+
+		if(!(board instanceof SparseBoard)) {
+			Board.copyCells(board, this);
+			return;
+		}
+		SparseBoard sparse = (SparseBoard) board;
+		if(slots.length == sparse.slots.length) {
+			System.arraycopy(sparse.slots, 0, slots, 0, slots.length);
+		}
+		else {
+			slots = sparse.slots.clone();
+		}
+		count = sparse.count;
+		System.arraycopy(sparse.rowCounts, 0, rowCounts, 0, N);
+		System.arraycopy(sparse.colCounts, 0, colCounts, 0, N);
+	}
+
+	@Override
+	public Board copy() {
+		return new SparseBoard(this);
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//two sparse boards are equal when they have the same ship cells, wherever those sit in their tables
+	@Override
+	public boolean equals(Object o) {
+
+		if(!(o instanceof SparseBoard)) {
+			return false;
+		}
+		SparseBoard board = (SparseBoard) o;
+		if(N != board.N || count != board.count) {
+			return false;
+		}
+		for(int cell : slots) {
+			if(cell != EMPTY && !board.get(cell)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	//the same for the same cells, however they are laid out in the table
+	@Override
+	public int hashCode() {
+
+		int hash = N;
+		for(int cell : slots) {
+			if(cell != EMPTY) {
+				hash += cell * 0x9e3779b9;
+			}
+		}
+		return hash;
+	}
+ }
@@ -0,0 +1,138 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ *  Heuristic Algorithms
+ *  TabuStrategy.java
+ *  Tabu search: each step lifts one random ship and puts it down at the best placement among its candidates,
+ *	even if that makes the score worse, so the search can walk out of a local minimum. To stop it walking straight
+ *	back in, the places ships have recently left are tabu for the next few moves, unless moving there would beat
+ *	the best score found so far. On small boards every placement of the ship is a candidate, on big ones a random
+ *	sample of them.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ public class TabuStrategy implements SearchStrategy {
+
+	//how many moves a place a ship has left stays tabu (0 to work it out from the number of ships),
+	//and the most placements looked at for each move
+	private final int tenure;
+	private final int candidates;
+	//the places ships have recently left, oldest overwritten first
+	private int[] tabuShip;
+	private int[] tabuPlacement;
+	private int tabuNext;
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	public TabuStrategy() {
+		this(0, 256);
+	}
+
+	public TabuStrategy(int tenure, int candidates) {
+		if(tenure < 0 || candidates < 1) {
+			throw new IllegalArgumentException("Tabu tenure must be at least 0 and candidates at least 1");
+		}
+		this.tenure = tenure;
+		this.candidates = candidates;
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	@Override
+	public void prepare(Solver solver, int maxSolutions) {
+
+		//a short memory works best on the puzzle mix: long enough that a ship cannot bounce straight back, 
+		//short enough that the ships are not boxed in
+		int length = tenure > 0 ? tenure : Math.max(2, solver.shipCount() / 8);
+		tabuShip = new int[length];
+		tabuPlacement = new int[length];
+		Arrays.fill(tabuShip, -1);
+		tabuNext = 0;
+	}
+
+	@Override
+	public void step(Solver solver) {
+
+		int ship = solver.nextRandom(solver.shipCount());
+		int from = solver.shipPlacement(ship);
+		int size = solver.placementCount(solver.shipLength(ship));
+		solver.liftShip(ship);
+		//every placement when there are few enough, otherwise a random sample
+		boolean all = size <= candidates;
+		int tries = all ? size : candidates;
+		int start = solver.nextRandom(size);
+		int bestPlacement = -1;
+		int bestMoved = Integer.MAX_VALUE;
+		for(int i = 0; i < tries; i++) {
+			int p = all ? (start + i) % size : solver.nextRandom(size);
+			if(p == from) {
+				continue;
+			}
+			int moved = solver.scoreWith(p);
+			if(moved < 0 || moved >= bestMoved) {
+				continue;
+			}
+			//a tabu move is only allowed when it beats every board found so far
+			if(moved >= solver.getScore() && isTabu(ship, p)) {
+				continue;
+			}
+			bestMoved = moved;
+			bestPlacement = p;
+		}
+		//nowhere to go that is not tabu, so this step leaves the board as it is
+		if(bestPlacement < 0) {
+			solver.cancelLift();
+			return;
+		}
+		solver.dropShip(bestPlacement);
+		//the place the ship has just left is tabu for the next few moves
+		tabuShip[tabuNext] = ship;
+		tabuPlacement[tabuNext] = from;
+		tabuNext = (tabuNext + 1) % tabuShip.length;
+	}
+
+	//has the ship left this placement within the last tenure moves
+	private boolean isTabu(int ship, int p) {
+		for(int i = 0; i < tabuShip.length; i++) {
+			if(tabuShip[i] == ship && tabuPlacement[i] == p) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	//the recent moves are part of the search, so a resumed search must not forget them
+	@Override
+	public void writeState(DataOutput out) throws IOException {
+		out.writeInt(tabuShip.length);
+		for(int i = 0; i < tabuShip.length; i++) {
+			out.writeInt(tabuShip[i]);
+			out.writeInt(tabuPlacement[i]);
+		}
+		out.writeInt(tabuNext);
+	}
+
+	@Override
+	public void readState(DataInput in) throws IOException {
+		int length = in.readInt();
+		if(length != tabuShip.length) {
+			throw new IOException("Checkpoint has a tabu list of " + length + " moves, not " + tabuShip.length);
+		}
+		for(int i = 0; i < length; i++) {
+			tabuShip[i] = in.readInt();
+			tabuPlacement[i] = in.readInt();
+		}
+		tabuNext = in.readInt();
+	}
+
+	@Override
+	public String name() {
+		return "tabu";
+	}
+ }
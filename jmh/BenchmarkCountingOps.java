@@ -0,0 +1,66 @@
+import benchmarks.CountingOps;
+
+/**
+ *  Heuristic Algorithms
+ *  BenchmarkCountingOps.java
+ *  Does the work of benchmarks.CountingBenchmark, from the default package where the boards are.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ public class BenchmarkCountingOps implements CountingOps {
+
+	//a solver for the puzzle, which calculateFitness belongs to, and the puzzle's solution
+	private Solver solver;
+	private Board board;
+	//scratch for the counts
+	private int[] counts;
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	@Override
+	public void setUp(int size, String kind) {
+
+		PuzzleGenerator generator = new PuzzleGenerator(size, PuzzleGenerator.defaultFleet(size));
+		Puzzle puzzle = generator.generate(size);
+		solver = new Solver(puzzle, 1);
+		switch(kind) {
+			case "dense":
+				board = new Bitboard(size);
+				break;
+			case "sparse":
+				board = new SparseBoard(size, size);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown board " + kind);
+		}
+		board.copyFrom(generator.getSolution());
+		counts = new int[size];
+	}
+
+	@Override
+	public String kernel() {
+		return board instanceof Bitboard ? Bitboard.counter().name() : "sparse";
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	@Override
+	public int calculateFitness() {
+		return solver.calculateFitness(board);
+	}
+
+	@Override
+	public int rowCounts() {
+		board.rowCounts(counts);
+		return counts[0];
+	}
+
+	@Override
+	public int colCounts() {
+		board.colCounts(counts);
+		return counts[0];
+	}
+ }
@@ -0,0 +1,103 @@
+import java.io.IOException;
+
+import benchmarks.SolverOps;
+
+/**
+ *  Heuristic Algorithms
+ *  BenchmarkSolverOps.java
+ *  Does the work of benchmarks.SolverBenchmark on the solver, from the default package where the solver is.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ public class BenchmarkSolverOps implements SolverOps {
+
+	//the solutions budget for preparing the solvers and for the full solve
+	private static final int SOLVE_BUDGET = 200;
+
+	private Puzzle puzzle;
+	//a solver at its initial solution, used by the move primitives, and that solution
+	private Solver solver;
+	private Board board;
+	//an empty board held like the solver's, for placeShip
+	private Board scratch;
+	//the longest ship, how many placements it has and the next one to try
+	private int length;
+	private int count;
+	private int next;
+	//a solver annealing under a real schedule
+	private Solver annealer;
+	//the seed of the next full solve
+	private long seed;
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	@Override
+	public void setUp(String name) throws IOException {
+
+		if(name.startsWith("generated-")) {
+			int N = Integer.parseInt(name.substring("generated-".length()));
+			puzzle = new PuzzleGenerator(N, PuzzleGenerator.defaultFleet(N)).generate(N);
+		}
+		else {
+			puzzle = Puzzle.read(name + ".txt");
+		}
+		solver = new Solver(puzzle, 1);
+		solver.prepare(SOLVE_BUDGET);
+		board = solver.getBestBoard();
+		scratch = board.copy();
+		scratch.clearAll();
+		for(int ship : puzzle.getShips()) {
+			length = Math.max(length, ship);
+		}
+		count = solver.placementCount(length);
+		annealer = new Solver(puzzle, 1);
+		annealer.setSchedule(new AnnealingSchedule(AnnealingSchedule.Kind.GEOMETRIC,
+			AnnealingSchedule.DEFAULT_T0, AnnealingSchedule.DEFAULT_T_END));
+		annealer.prepare(SOLVE_BUDGET);
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	@Override
+	public boolean isValid() {
+		solver.tryPlacement(length, next);
+		next = next + 1 == count ? 0 : next + 1;
+		return solver.isValid(board);
+	}
+
+	@Override
+	public int placeShip() {
+		solver.tryPlacement(length, next);
+		next = next + 1 == count ? 0 : next + 1;
+		solver.placeShip(scratch);
+		solver.removeShip(scratch);
+		return scratch.rowCount(0);
+	}
+
+	@Override
+	public int nextPossibleShipPos() {
+		solver.nextPossibleShipPos();
+		return next;
+	}
+
+	@Override
+	public int calculateFitness() {
+		return solver.calculateFitness(board);
+	}
+
+	@Override
+	public int simulatedAnnealing() {
+		annealer.simulatedAnnealing();
+		return annealer.getScore();
+	}
+
+	@Override
+	public int solve() {
+		Solver whole = new Solver(puzzle, seed++);
+		whole.solve(SOLVE_BUDGET);
+		return whole.getScore();
+	}
+ }
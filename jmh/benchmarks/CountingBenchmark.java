@@ -0,0 +1,70 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *  Heuristic Algorithms
+ *  CountingBenchmark.java
+ *  Times calculateFitness and the row and column counting behind it on the hidden solutions of generated
+ *	puzzles, too big for an initial solution to be worked out in good time, held on dense and on sparse boards.
+ *	The forks add the jdk.incubator.vector module, so a dense board counts with the vector kernel whenever it is
+ *	on the class path. -jvmArgsAppend -Dbattleship.vector=false times the scalar kernel instead.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ @State(Scope.Thread)
+ @BenchmarkMode(Mode.AverageTime)
+ @OutputTimeUnit(TimeUnit.NANOSECONDS)
+ @Warmup(iterations = 3, time = 1)
+ @Measurement(iterations = 5, time = 1)
+ @Fork(value = 2, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+ public class CountingBenchmark {
+
+	@Param({"256", "1024"})
+	public int size;
+
+	@Param({"dense", "sparse"})
+	public String board;
+
+	private CountingOps ops;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		ops = CountingOps.load();
+		ops.setUp(size, board);
+		System.err.println("Counting with the " + ops.kernel() + " kernel");
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	@Benchmark
+	public int calculateFitness() {
+		return ops.calculateFitness();
+	}
+
+	@Benchmark
+	public int rowCounts() {
+		return ops.rowCounts();
+	}
+
+	@Benchmark
+	public int colCounts() {
+		return ops.colCounts();
+	}
+ }
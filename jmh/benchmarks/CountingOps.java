@@ -0,0 +1,38 @@
+package benchmarks;
+
+/**
+ *  Heuristic Algorithms
+ *  CountingOps.java
+ *  The counting behind calculateFitness as CountingBenchmark runs it, reached the same way as SolverOps:
+ *	BenchmarkCountingOps does the work from the default package.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ public interface CountingOps {
+
+	//the name of the class that does the work
+	String CLASS = "BenchmarkCountingOps";
+
+	//generates a puzzle of this size and holds its hidden solution on a dense or sparse board
+	void setUp(int size, String board);
+
+	//the name of the kernel a dense board counts its rows with
+	String kernel();
+
+	//scores the solution from scratch
+	int calculateFitness();
+
+	//counts the ship cells of every row, and of every column
+	int rowCounts();
+
+	int colCounts();
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	static CountingOps load() throws ReflectiveOperationException {
+		return (CountingOps) Class.forName(CLASS).getDeclaredConstructor().newInstance();
+	}
+ }
@@ -0,0 +1,83 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *  Heuristic Algorithms
+ *  SolverBenchmark.java
+ *  Times the hot paths of the solver so that commits can be compared and regressions caught:
+ *	isValid, placeShip (with the matching removeShip), nextPossibleShipPos, calculateFitness,
+ *	one simulatedAnnealing step and a full solve, on the bundled BS-6-6-6, BS-10-10-10 and BS-15-15-15
+ *	puzzles and on generated boards. Run it with gradle jmh, see the README.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ @State(Scope.Thread)
+ @BenchmarkMode(Mode.AverageTime)
+ @OutputTimeUnit(TimeUnit.NANOSECONDS)
+ @Warmup(iterations = 3, time = 1)
+ @Measurement(iterations = 5, time = 1)
+ @Fork(2)
+ public class SolverBenchmark {
+
+	//a bundled puzzle, or generated-N for a generated N by N one
+	@Param({"BS-6-6-6", "BS-10-10-10", "BS-15-15-15", "generated-50", "generated-100"})
+	public String puzzle;
+
+	private SolverOps ops;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		ops = SolverOps.load();
+		ops.setUp(puzzle);
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	@Benchmark
+	public boolean isValid() {
+		return ops.isValid();
+	}
+
+	@Benchmark
+	public int placeShip() {
+		return ops.placeShip();
+	}
+
+	@Benchmark
+	public int nextPossibleShipPos() {
+		return ops.nextPossibleShipPos();
+	}
+
+	@Benchmark
+	public int calculateFitness() {
+		return ops.calculateFitness();
+	}
+
+	@Benchmark
+	public int simulatedAnnealing() {
+		return ops.simulatedAnnealing();
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public int solve() {
+		return ops.solve();
+	}
+ }
@@ -0,0 +1,48 @@
+package benchmarks;
+
+/**
+ *  Heuristic Algorithms
+ *  SolverOps.java
+ *  The solver's hot paths as SolverBenchmark runs them. JMH will not run benchmarks from the default package,
+ *	where the solver is, and a named package cannot see into it, so the work is done by BenchmarkSolverOps in
+ *	the default package and reached through this interface, looked up by name the way BoardCounter.load does.
+ *	Each call does one operation and returns something that depends on it, for JMH to consume.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ public interface SolverOps {
+
+	//the name of the class that does the work
+	String CLASS = "BenchmarkSolverOps";
+
+	//reads a bundled puzzle by name, or generates a puzzle of the size in a name like generated-50,
+	//and prepares a solver at its initial solution
+	void setUp(String puzzle) throws Exception;
+
+	//is the next placement of the longest ship clear of the initial solution
+	boolean isValid();
+
+	//puts the longest ship down at the next placement and takes it off again
+	int placeShip();
+
+	//moves the longest ship on round its placement table
+	int nextPossibleShipPos();
+
+	//scores the initial solution from scratch
+	int calculateFitness();
+
+	//one step at the start of the annealing, when every ship is moved, under a geometric schedule
+	int simulatedAnnealing();
+
+	//a whole solve, each from the next seed
+	int solve();
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	static SolverOps load() throws ReflectiveOperationException {
+		return (SolverOps) Class.forName(CLASS).getDeclaredConstructor().newInstance();
+	}
+ }
@@ -0,0 +1,83 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *  Heuristic Algorithms
+ *  BoardCounterTest.java
+ *  The vector kernel must count the same rows as the scalar one for every board size up to a few words past
+ *	a whole number of vectors, and a Bitboard's columns, counted through the transpose, must match a count of
+ *	its cells one at a time.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ class BoardCounterTest {
+
+	private static final int MAX_N = 300;
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	@Test
+	void vectorKernelCountsLikeScalarKernel() {
+
+		BoardCounter vector = BoardCounter.load();
+		//the build compiles the vector kernel and starts the tests with its module
+		assertEquals(BoardCounter.VECTOR_CLASS, vector.getClass().getName());
+		BoardCounter scalar = new ScalarBoardCounter();
+		SplittableRandom rand = new SplittableRandom(1);
+		for(int N = 1; N <= MAX_N; N++) {
+			Bitboard board = randomBoard(N, rand);
+			int[] expected = new int[N];
+			int[] actual = new int[N];
+			board.rowCounts(expected, scalar);
+			board.rowCounts(actual, vector);
+			assertArrayEquals(expected, actual, "N = " + N);
+		}
+	}
+
+	@Test
+	void columnsCountLikeCells() {
+
+		SplittableRandom rand = new SplittableRandom(2);
+		for(int N = 1; N <= MAX_N; N++) {
+			Bitboard board = randomBoard(N, rand);
+			int[] expected = new int[N];
+			for(int row = 0; row < N; row++) {
+				for(int col = 0; col < N; col++) {
+					expected[col] += board.get(row, col) ? 1 : 0;
+				}
+			}
+			int[] actual = new int[N];
+			board.colCounts(actual);
+			assertArrayEquals(expected, actual, "N = " + N);
+			//a second count reuses the transposed board and must not be thrown by what the first left there
+			board.clear(rand.nextInt(N * N));
+			board.set(rand.nextInt(N * N));
+			expected = new int[N];
+			for(int cell = 0; cell < N * N; cell++) {
+				expected[cell % N] += board.get(cell) ? 1 : 0;
+			}
+			board.colCounts(actual);
+			assertArrayEquals(expected, actual, "N = " + N + " counted again");
+		}
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//an N by N board with about a third of its cells set
+	private static Bitboard randomBoard(int N, SplittableRandom rand) {
+		Bitboard board = new Bitboard(N);
+		for(int cell = 0; cell < N * N; cell++) {
+			if(rand.nextInt(3) == 0) {
+				board.set(cell);
+			}
+		}
+		return board;
+	}
+ }
\ No newline at end of file
@@ -0,0 +1,108 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *  Heuristic Algorithms
+ *  BoardTest.java
+ *  A SparseBoard and a Bitboard given the same cells, rectangles and copies must agree on every cell, on the
+ *	count of every row and column and on which rectangles hold a ship, and Board.cells must find the same ship
+ *	cells in both. The boards are checked against each other after every change, so a count kept wrong by one
+ *	change cannot be put right by the next.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ class BoardTest {
+
+	private static final int N = 70;
+	private static final int CHANGES = 3000;
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	@Test
+	void sparseBoardAgreesWithBitboard() {
+
+		SplittableRandom rand = new SplittableRandom(4);
+		Board sparse = new SparseBoard(N, 1);
+		Board dense = new Bitboard(N);
+		for(int change = 0; change < CHANGES; change++) {
+			int row = rand.nextInt(N);
+			int col = rand.nextInt(N);
+			int rowTo = Math.min(N - 1, row + rand.nextInt(5));
+			int colTo = Math.min(N - 1, col + rand.nextInt(5));
+			switch(rand.nextInt(4)) {
+				case 0:
+					sparse.set(row * N + col);
+					dense.set(row * N + col);
+					break;
+				case 1:
+					sparse.clear(row * N + col);
+					dense.clear(row * N + col);
+					break;
+				case 2:
+					sparse.setRect(row, rowTo, col, colTo);
+					dense.setRect(row, rowTo, col, colTo);
+					break;
+				default:
+					sparse.clearRect(row, rowTo, col, colTo);
+					dense.clearRect(row, rowTo, col, colTo);
+			}
+			assertEquals(dense.anyInRect(row, rowTo, col, colTo), sparse.anyInRect(row, rowTo, col, colTo), "change " + change);
+			assertSameCounts(dense, sparse, "change " + change);
+		}
+		assertSameCells(dense, sparse);
+		assertArrayEquals(Board.cells(dense), Board.cells(sparse));
+	}
+
+	@Test
+	void copiesKeepEveryCell() {
+
+		SplittableRandom rand = new SplittableRandom(5);
+		Board dense = new Bitboard(N);
+		for(int i = 0; i < N * 3; i++) {
+			dense.set(rand.nextInt(N * N));
+		}
+		Board sparse = new SparseBoard(N, 1);
+		sparse.copyFrom(dense);
+		assertSameCells(dense, sparse);
+		assertSameCounts(dense, sparse, "copied from dense");
+		Board sparseCopy = sparse.copy();
+		assertEquals(sparse, sparseCopy);
+		Board denseAgain = new Bitboard(N);
+		denseAgain.copyFrom(sparseCopy);
+		assertEquals(dense, denseAgain);
+		//a copy is a board of its own
+		sparseCopy.clearAll();
+		assertSameCells(dense, sparse);
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	private static void assertSameCounts(Board expected, Board actual, String when) {
+		int[] expectedRows = new int[N];
+		int[] actualRows = new int[N];
+		expected.rowCounts(expectedRows);
+		actual.rowCounts(actualRows);
+		assertArrayEquals(expectedRows, actualRows, when + ", rows");
+		int[] expectedCols = new int[N];
+		int[] actualCols = new int[N];
+		expected.colCounts(expectedCols);
+		actual.colCounts(actualCols);
+		assertArrayEquals(expectedCols, actualCols, when + ", columns");
+		for(int row = 0; row < N; row++) {
+			assertEquals(expectedRows[row], actual.rowCount(row), when + ", row " + row);
+		}
+	}
+
+	private static void assertSameCells(Board expected, Board actual) {
+		for(int cell = 0; cell < N * N; cell++) {
+			assertEquals(expected.get(cell), actual.get(cell), "cell " + cell);
+		}
+	}
+ }
\ No newline at end of file
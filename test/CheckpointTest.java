@@ -0,0 +1,70 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *  Heuristic Algorithms
+ *  CheckpointTest.java
+ *  A seeded search that checkpoints every so many steps, stopped at one of its checkpoints and resumed from it,
+ *	must end on the same board with the same score as the same search left to run, for every strategy.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ class CheckpointTest {
+
+	private static final int N = 10;
+	private static final long SEED = 42;
+	private static final int BUDGET = 3000;
+	private static final long INTERVAL = 250;
+
+	private final Puzzle puzzle;
+
+	CheckpointTest() {
+		PuzzleGenerator generator = new PuzzleGenerator(N, PuzzleGenerator.defaultFleet(N));
+		this.puzzle = generator.generate(7);
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	@Test
+	void resumedSearchEndsWhereUninterruptedOneDoes(@TempDir Path dir) throws Exception {
+
+		for(String name : SearchStrategy.NAMES) {
+			Solver whole = solver(name);
+			whole.setCheckpointSteps(dir.resolve(name + "-whole.bin"), INTERVAL);
+			whole.solve(BUDGET);
+
+			Path file = dir.resolve(name + ".bin");
+			Solver first = solver(name);
+			first.setCheckpointSteps(file, INTERVAL);
+			first.setMaxIterations(4 * INTERVAL);
+			first.solve(BUDGET);
+			assertEquals(4 * INTERVAL, first.getIterations(), name);
+
+			Solver resumed = solver(name);
+			resumed.setCheckpointSteps(file, INTERVAL);
+			resumed.resume(file);
+			resumed.solve(BUDGET);
+
+			assertEquals(whole.getIterations(), resumed.getIterations(), name);
+			assertEquals(whole.getScore(), resumed.getScore(), name);
+			for(int cell = 0; cell < N * N; cell++) {
+				assertEquals(whole.getBestBoard().get(cell), resumed.getBestBoard().get(cell), name + " cell " + cell);
+			}
+		}
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	private Solver solver(String name) {
+		Solver solver = new Solver(puzzle, SEED);
+		solver.setStrategy(SearchStrategy.parse(name));
+		return solver;
+	}
+ }
\ No newline at end of file
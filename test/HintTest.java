@@ -0,0 +1,178 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *  Heuristic Algorithms
+ *  HintTest.java
+ *  A hint turned with its board must name the part of the ship the turned board has there, so the cache finds
+ *	a puzzle with ship end hints under all 8 orientations. A board that goes against one hint must score exactly
+ *	Hint.PENALTY more than without the hint, and the placements pruned on hints must keep every ship of a
+ *	solution that agrees with them.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ class HintTest {
+
+	private static final int N = 12;
+
+	//a generated puzzle and its hidden solution
+	private final Puzzle puzzle;
+	private final Board solution;
+
+	HintTest() {
+		PuzzleGenerator generator = new PuzzleGenerator(N, PuzzleGenerator.defaultFleet(N));
+		this.puzzle = generator.generate(11);
+		this.solution = generator.getSolution();
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	@Test
+	void kindTurnsWithItsBoard() {
+
+		for(int transform = 0; transform < 8; transform++) {
+			Board turned = turn(solution, transform);
+			for(int row = 0; row < N; row++) {
+				for(int col = 0; col < N; col++) {
+					int cell = turnCell(transform, row, col);
+					assertEquals(Hint.of(turned, cell / N, cell % N).getKind(), Hint.of(solution, row, col).getKind().turned(transform),
+						"transform " + transform + ", cell " + row + "," + col);
+				}
+			}
+		}
+	}
+
+	@Test
+	void cacheFindsShipEndHintsInEveryOrientation() {
+
+		Puzzle hinted = puzzle.withHints(shipEndHints());
+		for(int stored = 0; stored < 8; stored++) {
+			SolutionCache cache = new SolutionCache(10, 1 << 20);
+			cache.put(turn(hinted, stored), turn(solution, stored), 0, 1);
+			for(int asked = 0; asked < 8; asked++) {
+				Puzzle turned = turn(hinted, asked);
+				Board board = cache.get(turned, 1);
+				assertNotNull(board, "stored as " + stored + ", asked as " + asked);
+				assertEquals(0, turned.score(board), "stored as " + stored + ", asked as " + asked);
+			}
+		}
+	}
+
+	@Test
+	void brokenHintCostsPenalty() {
+
+		List<Hint> hints = new ArrayList<Hint>();
+		for(int cell = 0; cell < N * N; cell += 7) {
+			hints.add(Hint.of(solution, cell / N, cell % N));
+		}
+		Puzzle hinted = puzzle.withHints(hints.toArray(new Hint[0]));
+		Solver plainSolver = new Solver(puzzle, 1);
+		Solver hintedSolver = new Solver(hinted, 1);
+		for(Hint hint : hints) {
+			Board broken = solution.copy();
+			int cell = hint.getRow() * N + hint.getCol();
+			if(hint.getKind().isShip()) {
+				broken.clear(cell);
+			}
+			else {
+				broken.set(cell);
+			}
+			assertEquals(puzzle.score(broken) + Hint.PENALTY, hinted.score(broken), hint.toString());
+			assertEquals(plainSolver.calculateFitness(broken) + Hint.PENALTY, hintedSolver.calculateFitness(broken), hint.toString());
+		}
+	}
+
+	@Test
+	void prunedPlacementsKeepTheSolution() {
+
+		Puzzle hinted = puzzle.withHints(shipEndHints());
+		Presolve presolve = new Presolve(hinted.getXHits(), hinted.getYHits(), hinted.getHints());
+		PlacementTable[] tables = PlacementTable.build(hinted.getShips(), hinted.getXHits(), hinted.getYHits(), presolve);
+		//every ship of the solution starts at its top or left end
+		for(int row = 0; row < N; row++) {
+			for(int col = 0; col < N; col++) {
+				if(!solution.get(row, col) || (row > 0 && solution.get(row - 1, col)) || (col > 0 && solution.get(row, col - 1))) {
+					continue;
+				}
+				boolean vert = row < N - 1 && solution.get(row + 1, col);
+				int length = 1;
+				while(vert ? row + length < N && solution.get(row + length, col) : col + length < N && solution.get(row, col + length)) {
+					length++;
+				}
+				assertTrue(tables[length].indexOf(row * N + col, vert) >= 0, "ship of " + length + " at " + row + "," + col);
+			}
+		}
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//a hint on every end of a ship of 2 or more, the ones that say which way the ship lies
+	private Hint[] shipEndHints() {
+
+		List<Hint> hints = new ArrayList<Hint>();
+		for(int row = 0; row < N; row++) {
+			for(int col = 0; col < N; col++) {
+				Hint hint = Hint.of(solution, row, col);
+				switch(hint.getKind()) {
+					case LEFT:
+					case RIGHT:
+					case TOP:
+					case BOTTOM:
+						hints.add(hint);
+						break;
+					default:
+						break;
+				}
+			}
+		}
+		return hints.toArray(new Hint[0]);
+	}
+
+	//a board turned by transform: 4 transposes it, then 2 reverses the columns and 1 reverses the rows
+	private static Board turn(Board board, int transform) {
+
+		Board turned = Board.create(N, N * N);
+		for(int row = 0; row < N; row++) {
+			for(int col = 0; col < N; col++) {
+				if(board.get(row, col)) {
+					turned.set(turnCell(transform, row, col));
+				}
+			}
+		}
+		return turned;
+	}
+
+	private static int turnCell(int transform, int row, int col) {
+		int r = (transform & 4) != 0 ? col : row;
+		int c = (transform & 4) != 0 ? row : col;
+		r = (transform & 1) != 0 ? N - 1 - r : r;
+		c = (transform & 2) != 0 ? N - 1 - c : c;
+		return r * N + c;
+	}
+
+	//the puzzle the turned solution is the answer to, with the same cells given away, read off the turned board
+	private Puzzle turn(Puzzle hinted, int transform) {
+
+		Board board = turn(solution, transform);
+		int[] xHits = new int[N];
+		int[] yHits = new int[N];
+		board.colCounts(xHits);
+		board.rowCounts(yHits);
+		Hint[] hints = hinted.getHints();
+		Hint[] turned = new Hint[hints.length];
+		for(int i = 0; i < hints.length; i++) {
+			int cell = turnCell(transform, hints[i].getRow(), hints[i].getCol());
+			turned[i] = Hint.of(board, cell / N, cell % N);
+		}
+		return new Puzzle(hinted.getShips(), xHits, yHits, turned);
+	}
+ }
\ No newline at end of file
@@ -0,0 +1,65 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *  Heuristic Algorithms
+ *  PresolveTest.java
+ *  Every generated puzzle has a solution, so the presolve rules must never find a contradiction in one or fix
+ *	a cell of its solution the wrong way, and the exact solver, pruned by them, must always solve it. A rule that
+ *	is wrong shows up here as a solvable puzzle reported unsolvable.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ class PresolveTest {
+
+	private static final int[] SIZES = {10, 12};
+	private static final int SEEDS = 10;
+	private static final int HINTS = 6;
+	private static final long TIME_LIMIT = 30_000_000_000L;
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	@Test
+	void generatedPuzzlesPresolveAndSolve() {
+
+		for(int N : SIZES) {
+			PuzzleGenerator generator = new PuzzleGenerator(N, PuzzleGenerator.defaultFleet(N));
+			for(int seed = 1; seed <= SEEDS; seed++) {
+				Puzzle plain = generator.generate(seed);
+				Board solution = generator.getSolution();
+				check(plain, solution, N + "x" + N + " seed " + seed);
+				Puzzle hinted = generator.withHints(plain, HINTS, new SplittableRandom(seed));
+				check(hinted, solution, N + "x" + N + " seed " + seed + " with hints");
+			}
+		}
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	private static void check(Puzzle puzzle, Board solution, String name) {
+
+		int N = puzzle.size();
+		Presolve presolve = new Presolve(puzzle.getXHits(), puzzle.getYHits(), puzzle.getHints());
+		assertFalse(presolve.isContradiction(), name);
+		for(int row = 0; row < N; row++) {
+			for(int col = 0; col < N; col++) {
+				if(solution.get(row, col)) {
+					assertFalse(presolve.isWater(row, col), name + ", ship at " + row + "," + col + " fixed as water");
+				}
+				else {
+					assertFalse(presolve.isShip(row, col), name + ", water at " + row + "," + col + " fixed as ship");
+				}
+			}
+		}
+		ExactSolver exact = new ExactSolver(puzzle);
+		assertEquals(ExactSolver.Outcome.SOLVED, exact.solve(TIME_LIMIT), name);
+		assertEquals(0, puzzle.score(exact.getBoard()), name);
+	}
+ }
\ No newline at end of file
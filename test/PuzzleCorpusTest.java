@@ -0,0 +1,88 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *  Heuristic Algorithms
+ *  PuzzleCorpusTest.java
+ *  Puzzles packed into a corpus, with and without hints and solutions, must read back from the mapped file
+ *	exactly as they went in. The boards go past 127 cells a side and the fleets past 127 ships, so the sizes,
+ *	ship counts and hint cells all take more than one byte of varint.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ class PuzzleCorpusTest {
+
+	private static final int[] SIZES = {10, 12, 150, 300};
+	private static final int HINTS = 20;
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	@Test
+	void packedPuzzlesReadBackUnchanged(@TempDir Path dir) throws Exception {
+
+		List<Puzzle> puzzles = new ArrayList<Puzzle>();
+		List<Board> solutions = new ArrayList<Board>();
+		for(int N : SIZES) {
+			PuzzleGenerator generator = new PuzzleGenerator(N, PuzzleGenerator.defaultFleet(Math.min(N, 40)));
+			Puzzle puzzle = generator.generate(N);
+			Board solution = generator.getSolution();
+			//each puzzle plain, with hints, with its solution, and with both
+			puzzles.add(puzzle);
+			solutions.add(null);
+			puzzles.add(generator.withHints(puzzle, HINTS, new SplittableRandom(N)));
+			solutions.add(null);
+			puzzles.add(puzzle);
+			solutions.add(solution.copy());
+			puzzles.add(generator.withHints(puzzle, HINTS, new SplittableRandom(N + 1)));
+			solutions.add(solution.copy());
+		}
+		Path file = dir.resolve("puzzles.bsc");
+		try (PuzzleCorpus.Writer writer = new PuzzleCorpus.Writer(file)) {
+			for(int i = 0; i < puzzles.size(); i++) {
+				writer.add(puzzles.get(i), solutions.get(i));
+			}
+		}
+
+		PuzzleCorpus.Reader reader = PuzzleCorpus.Reader.open(file);
+		assertEquals(puzzles.size(), reader.count());
+		for(int i = 0; i < puzzles.size(); i++) {
+			assertTrue(reader.next(), "record " + i);
+			assertEquals(i, reader.index());
+			Puzzle expected = puzzles.get(i);
+			Puzzle actual = reader.puzzle();
+			assertArrayEquals(expected.getShips(), actual.getShips(), "record " + i);
+			assertArrayEquals(expected.getXHits(), actual.getXHits(), "record " + i);
+			assertArrayEquals(expected.getYHits(), actual.getYHits(), "record " + i);
+			Hint[] expectedHints = expected.getHints();
+			Hint[] actualHints = actual.getHints();
+			assertEquals(expectedHints.length, actualHints.length, "record " + i);
+			for(int h = 0; h < expectedHints.length; h++) {
+				assertEquals(expectedHints[h].toString(), actualHints[h].toString(), "record " + i + ", hint " + h);
+			}
+			Board solution = solutions.get(i);
+			if(solution == null) {
+				assertFalse(reader.hasSolution(), "record " + i);
+				assertNull(reader.solution(), "record " + i);
+			}
+			else {
+				assertArrayEquals(Board.cells(solution), Board.cells(reader.solution()), "record " + i);
+				assertEquals(0, expected.score(reader.solution()), "record " + i);
+			}
+		}
+		assertFalse(reader.next());
+	}
+ }
\ No newline at end of file
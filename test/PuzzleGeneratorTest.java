@@ -0,0 +1,35 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *  Heuristic Algorithms
+ *  PuzzleGeneratorTest.java
+ *  The default fleet must fit on every size of board, small ones included, and every puzzle generated must be
+ *	solved by the solution it was counted from.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ class PuzzleGeneratorTest {
+
+	private static final int MAX_N = 20;
+	private static final int SEEDS = 20;
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	@Test
+	void defaultFleetFitsEverySize() {
+
+		for(int N = 1; N <= MAX_N; N++) {
+			PuzzleGenerator generator = new PuzzleGenerator(N, PuzzleGenerator.defaultFleet(N));
+			for(int seed = 0; seed < SEEDS; seed++) {
+				Puzzle puzzle = generator.generate(seed);
+				assertEquals(N, puzzle.size());
+				assertEquals(0, puzzle.score(generator.getSolution()), N + "x" + N + " seed " + seed);
+			}
+		}
+	}
+ }
\ No newline at end of file
@@ -0,0 +1,167 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *  Heuristic Algorithms
+ *  SolutionCacheTest.java
+ *  A board stored for a puzzle must come back turned to fit each of the puzzle's 8 orientations, from memory
+ *	and from a saved file, a sparse board must be saved as the list of its cells, and a board must only answer
+ *	searches with no bigger budget unless it solved the puzzle.
+ *	The orientations are worked out here from the boards, not with the cache's own code, so that a mistake there
+ *	cannot cancel itself out.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ class SolutionCacheTest {
+
+	private static final int N = 12;
+
+	//a generated puzzle with some hints, and its hidden solution
+	private final Puzzle puzzle;
+	private final Board solution;
+
+	SolutionCacheTest() {
+		PuzzleGenerator generator = new PuzzleGenerator(N, PuzzleGenerator.defaultFleet(N));
+		Puzzle plain = generator.generate(3);
+		this.puzzle = generator.withHints(plain, 6, new SplittableRandom(3));
+		this.solution = generator.getSolution();
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	@Test
+	void storedBoardFitsEveryOrientation() {
+
+		for(int stored = 0; stored < 8; stored++) {
+			SolutionCache cache = new SolutionCache(10, 1 << 20);
+			cache.put(turn(puzzle, stored), turn(solution, stored), 0, 1);
+			for(int asked = 0; asked < 8; asked++) {
+				Puzzle turned = turn(puzzle, asked);
+				Board board = cache.get(turned, 1);
+				assertNotNull(board, "stored as " + stored + ", asked as " + asked);
+				assertSameCells(turn(solution, asked), board);
+				assertEquals(0, turned.score(board));
+			}
+		}
+	}
+
+	@Test
+	void savedCacheLoadsTheSameBoards(@TempDir Path dir) throws Exception {
+
+		SolutionCache cache = new SolutionCache(10, 1 << 20);
+		cache.put(turn(puzzle, 5), turn(solution, 5), 0, 1);
+		cache.save(dir.resolve("cache.bin"));
+		SolutionCache loaded = new SolutionCache(10, 1 << 20);
+		loaded.load(dir.resolve("cache.bin"));
+		for(int asked = 0; asked < 8; asked++) {
+			assertSameCells(turn(solution, asked), loaded.get(turn(puzzle, asked), 1));
+		}
+	}
+
+	@Test
+	void biggerBudgetSearchesAgainUnlessSolved(@TempDir Path dir) throws Exception {
+
+		Board empty = Board.create(N, 0);
+		int emptyScore = puzzle.score(empty);
+		SolutionCache cache = new SolutionCache(10, 1 << 20);
+		cache.put(puzzle, empty, emptyScore, 50);
+		assertNotNull(cache.get(puzzle, 50));
+		assertNull(cache.get(puzzle, 100));
+		//a worse board from a bigger search keeps the better board, but the bigger budget is remembered
+		Board worse = empty.copy();
+		worse.set(0);
+		cache.put(puzzle, worse, emptyScore + 10, 100);
+		assertSameCells(empty, cache.get(puzzle, 100));
+		//and saved with it
+		cache.save(dir.resolve("cache.bin"));
+		SolutionCache loaded = new SolutionCache(10, 1 << 20);
+		loaded.load(dir.resolve("cache.bin"));
+		assertNotNull(loaded.get(puzzle, 100));
+		assertNull(loaded.get(puzzle, 101));
+		//a perfect solution answers any budget
+		cache.put(puzzle, solution, 0, 1);
+		assertSameCells(solution, cache.get(puzzle, Long.MAX_VALUE));
+	}
+
+	@Test
+	void sparseBoardSavesAsItsCells(@TempDir Path dir) throws Exception {
+
+		//a board this big with one classic fleet on it is held sparse, and saved as a list far smaller than its
+		//packed cells
+		int size = 400;
+		PuzzleGenerator generator = new PuzzleGenerator(size, PuzzleGenerator.defaultFleet(10));
+		Puzzle big = generator.generate(8);
+		Board bigSolution = generator.getSolution();
+		SolutionCache cache = new SolutionCache(10, 1 << 20);
+		cache.put(big, bigSolution, 0, 1);
+		cache.save(dir.resolve("cache.bin"));
+		assertTrue(Files.size(dir.resolve("cache.bin")) < size * size / 8);
+		SolutionCache loaded = new SolutionCache(10, 1 << 20);
+		loaded.load(dir.resolve("cache.bin"));
+		Board board = loaded.get(big, 1);
+		assertTrue(board instanceof SparseBoard);
+		assertArrayEquals(Board.cells(bigSolution), Board.cells(board));
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	//a board turned by transform: 4 transposes it, then 2 reverses the columns and 1 reverses the rows
+	private static Board turn(Board board, int transform) {
+
+		Board turned = Board.create(N, N * N);
+		for(int row = 0; row < N; row++) {
+			for(int col = 0; col < N; col++) {
+				if(board.get(row, col)) {
+					turned.set(turnCell(transform, row, col));
+				}
+			}
+		}
+		return turned;
+	}
+
+	private static int turnCell(int transform, int row, int col) {
+		int r = (transform & 4) != 0 ? col : row;
+		int c = (transform & 4) != 0 ? row : col;
+		r = (transform & 1) != 0 ? N - 1 - r : r;
+		c = (transform & 2) != 0 ? N - 1 - c : c;
+		return r * N + c;
+	}
+
+	//the puzzle the turned solution is the answer to: its hits counted from the board, and the same cells given
+	//away, read off the turned board
+	private Puzzle turn(Puzzle puzzle, int transform) {
+
+		Board board = turn(solution, transform);
+		int[] xHits = new int[N];
+		int[] yHits = new int[N];
+		board.colCounts(xHits);
+		board.rowCounts(yHits);
+		Hint[] hints = puzzle.getHints();
+		Hint[] turned = new Hint[hints.length];
+		for(int i = 0; i < hints.length; i++) {
+			int cell = turnCell(transform, hints[i].getRow(), hints[i].getCol());
+			turned[i] = Hint.of(board, cell / N, cell % N);
+		}
+		return new Puzzle(puzzle.getShips(), xHits, yHits, turned);
+	}
+
+	private static void assertSameCells(Board expected, Board actual) {
+		assertNotNull(actual);
+		for(int cell = 0; cell < N * N; cell++) {
+			assertEquals(expected.get(cell), actual.get(cell), "cell " + cell);
+		}
+	}
+ }
\ No newline at end of file
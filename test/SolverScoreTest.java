@@ -0,0 +1,71 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *  Heuristic Algorithms
+ *  SolverScoreTest.java
+ *  The search keeps its score up to date as ships are lifted and dropped instead of counting the board again,
+ *	so after a solve the score it reports must be the score of its best board counted from scratch, by the
+ *	solver and by the puzzle, for every strategy, on dense and sparse boards, with and without hints.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ class SolverScoreTest {
+
+	private static final int[] SIZES = {10, 12};
+	private static final int SEEDS = 3;
+	private static final int HINTS = 6;
+	private static final int BUDGET = 2000;
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	@Test
+	void runningScoreMatchesBestBoard() {
+
+		String before = System.getProperty("battleship.board");
+		try {
+			for(String held : new String[] {"dense", "sparse"}) {
+				System.setProperty("battleship.board", held);
+				for(int N : SIZES) {
+					PuzzleGenerator generator = new PuzzleGenerator(N, PuzzleGenerator.defaultFleet(N));
+					for(int seed = 1; seed <= SEEDS; seed++) {
+						Puzzle plain = generator.generate(seed);
+						Puzzle hinted = generator.withHints(plain, HINTS, new SplittableRandom(seed));
+						for(String name : SearchStrategy.NAMES) {
+							check(plain, name, seed, held + " " + N + "x" + N + " seed " + seed + " " + name);
+							check(hinted, name, seed, held + " " + N + "x" + N + " seed " + seed + " " + name + " with hints");
+						}
+					}
+				}
+			}
+		}
+		finally {
+			if(before == null) {
+				System.clearProperty("battleship.board");
+			}
+			else {
+				System.setProperty("battleship.board", before);
+			}
+		}
+	}
+
+	// -------------------------------------------------------------------------------------------------------------------
+
+	private static void check(Puzzle puzzle, String strategy, long seed, String name) {
+
+		Solver solver = new Solver(puzzle, seed);
+		solver.setStrategy(SearchStrategy.parse(strategy));
+		solver.solve(BUDGET);
+		Board board = solver.getBestBoard();
+		assertTrue(board instanceof SparseBoard == System.getProperty("battleship.board").equals("sparse"), name);
+		assertEquals(solver.calculateFitness(board), solver.getScore(), name);
+		assertEquals(puzzle.score(board), solver.getScore(), name);
+	}
+ }
\ No newline at end of file
@@ -0,0 +1,78 @@
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ *  Heuristic Algorithms
+ *  VectorBoardCounter.java
+ *  The counting kernel on the jdk.incubator.vector API, counting four words of a row at once. It sticks to 256 bit
+ *	vectors even where the CPU has wider ones: a row of 256 cells is exactly one, and the JIT only turns the vector
+ *	code into vector instructions while every vector it has seen go through it has the same shape.
+ *	JDK 17 has no vector bit count, so each lane is counted the Hacker's Delight way: bits summed in pairs, then
+ *	nibbles, then bytes. The byte counts are added up across vectors and only folded into one total per row at
+ *	its end, or every 31 vectors before a byte can overflow.
+ *	It lives apart from the other classes because it only compiles with the module added:
+ *	  javac --add-modules jdk.incubator.vector -cp . -d . vector/VectorBoardCounter.java
+ *	(Gradle compiles it as its own source set, with the module added, for the tests and benchmarks)
+ *	and is only used by a JVM started with --add-modules jdk.incubator.vector, BoardCounter.load falling back
+ *	to ScalarBoardCounter otherwise.
+ *
+ *  Authors: Sacha Raman and Elizabeth Macken
+ *
+ **/
+
+
+ public final class VectorBoardCounter implements BoardCounter {
+
+	//four words at a time where the CPU has 256 bit vectors, as many as it has otherwise
+	private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED.length() >= 4 
+		? LongVector.SPECIES_256 : LongVector.SPECIES_PREFERRED;
+	//a byte holds a count of up to 255, and each vector adds up to 8 to it
+	private static final int FOLD_EVERY = 31;
+
+	@Override
+	public void rowCounts(long[] words, int W, int rows, int[] counts) {
+
+		int lanes = SPECIES.length();
+		for(int r = 0; r < rows; r++) {
+			int w = r * W;
+			int end = w + W;
+			int count = 0;
+			//whole vectors of the row, their byte counts added up lane by lane
+			while(w + lanes <= end) {
+				LongVector bytes = LongVector.zero(SPECIES);
+				for(int n = 0; n < FOLD_EVERY && w + lanes <= end; n++, w += lanes) {
+					bytes = bytes.add(byteCounts(LongVector.fromArray(SPECIES, words, w)));
+				}
+				count += fold(bytes);
+			}
+			//the words left over at the end of the row
+			for(; w < end; w++) {
+				count += Long.bitCount(words[w]);
+			}
+			counts[r] = count;
+		}
+	}
+
+	//the number of bits set in each byte of each lane
+	private static LongVector byteCounts(LongVector v) {
+
+		v = v.sub(v.lanewise(VectorOperators.LSHR, 1).and(0x5555555555555555L));
+		v = v.and(0x3333333333333333L).add(v.lanewise(VectorOperators.LSHR, 2).and(0x3333333333333333L));
+		return v.add(v.lanewise(VectorOperators.LSHR, 4)).and(0x0f0f0f0f0f0f0f0fL);
+	}
+
+	//the sum of every byte in every lane
+	private static int fold(LongVector bytes) {
+
+		LongVector v = bytes.and(0x00ff00ff00ff00ffL).add(bytes.lanewise(VectorOperators.LSHR, 8).and(0x00ff00ff00ff00ffL));
+		v = v.add(v.lanewise(VectorOperators.LSHR, 16));
+		v = v.add(v.lanewise(VectorOperators.LSHR, 32));
+		return (int) v.and(0xffffL).reduceLanes(VectorOperators.ADD);
+	}
+
+	@Override
+	public String name() {
+		return "vector";
+	}
+ }